@@ -0,0 +1,80 @@
+/**
+ * AliasTable.java
+ * - Vose's alias method: draws index i with probability weight[i] / sum
+ * - Built once in O(n); sample() is one column pick and one compare,
+ *   constant time and allocation free however many weights there are
+ * - Takes raw 64-bit random values, so any generator (including the
+ *   counter-based one in SeededOutcomeGenerator) can drive it
+ */
+public final class AliasTable {
+
+    private static final double SCALE = 4294967296.0; // 2^32
+
+    private final long[] threshold; // keep column i if the low 32 bits are below this
+    private final int[] alias;
+    private final double[] probability;
+
+    public AliasTable(int[] weights) {
+        int n = weights.length;
+        if (n == 0) throw new IllegalArgumentException("no weights");
+        long sum = 0;
+        for (int w : weights) {
+            if (w < 0) throw new IllegalArgumentException("negative weight " + w);
+            sum += w;
+        }
+        if (sum == 0) throw new IllegalArgumentException("all weights are zero");
+
+        threshold = new long[n];
+        alias = new int[n];
+        probability = new double[n];
+
+        double[] scaled = new double[n];
+        int[] small = new int[n], large = new int[n];
+        int smallCount = 0, largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            probability[i] = (double) weights[i] / sum;
+            scaled[i] = probability[i] * n;
+            if (scaled[i] < 1.0) small[smallCount++] = i;
+            else large[largeCount++] = i;
+        }
+
+        while (smallCount > 0 && largeCount > 0) {
+            int s = small[--smallCount];
+            int l = large[--largeCount];
+            threshold[s] = (long) (scaled[s] * SCALE);
+            alias[s] = l;
+            scaled[l] = (scaled[l] + scaled[s]) - 1.0;
+            if (scaled[l] < 1.0) small[smallCount++] = l;
+            else large[largeCount++] = l;
+        }
+        // leftovers are 1.0 up to rounding error
+        while (largeCount > 0) {
+            int l = large[--largeCount];
+            threshold[l] = (long) SCALE;
+            alias[l] = l;
+        }
+        while (smallCount > 0) {
+            int s = small[--smallCount];
+            threshold[s] = (long) SCALE;
+            alias[s] = s;
+        }
+    }
+
+    public int size() {
+        return threshold.length;
+    }
+
+    /** Exact probability of index i, for reports and simulations. */
+    public double probability(int i) {
+        return probability[i];
+    }
+
+    /**
+     * Maps 64 random bits to an index: the high half picks the column,
+     * the low half decides between the column and its alias.
+     */
+    public int sample(long random) {
+        int column = (int) (((random >>> 32) * threshold.length) >>> 32);
+        return (random & 0xFFFFFFFFL) < threshold[column] ? column : alias[column];
+    }
+}
@@ -0,0 +1,107 @@
+import javax.swing.Timer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * AnimationClock.java
+ * - One shared Swing timer that drives every animation on screen
+ * - Ticks at most "arcade.maxFps" times per second (default 30)
+ * - Listeners added with addFast() (spinning reels) raise the rate to
+ *   "arcade.fastFps" (default 60) while they are registered; the others
+ *   keep being ticked at the normal rate
+ * - Only runs while at least one listener is registered, so nothing
+ *   wakes up while every animated window is hidden
+ *
+ * All methods must be called on the event dispatch thread.
+ */
+public final class AnimationClock {
+
+    public interface Listener {
+        /** Called on the EDT with the current time in milliseconds. */
+        void tick(long nowMillis);
+    }
+
+    public static final int MAX_FPS = Math.max(1, Integer.getInteger("arcade.maxFps", 30));
+    public static final int FAST_FPS = Math.max(MAX_FPS, Integer.getInteger("arcade.fastFps", 60));
+
+    private static final List<Listener> listeners = new ArrayList<>();
+    private static final List<Listener> fastListeners = new ArrayList<>();
+    private static Listener[] snapshot = new Listener[0];
+    private static Listener[] fastSnapshot = new Listener[0];
+    private static Timer timer;
+    private static long ticks = 0;
+    private static long lastNormalTick = 0;
+
+    private AnimationClock() {
+    }
+
+    public static void add(Listener listener) {
+        if (listeners.contains(listener)) return;
+        listeners.add(listener);
+        snapshot = listeners.toArray(new Listener[0]);
+        update();
+    }
+
+    /**
+     * Registers a listener that is ticked at FAST_FPS, for motion that must
+     * look smooth (reels). Remove it as soon as the motion ends.
+     */
+    public static void addFast(Listener listener) {
+        if (fastListeners.contains(listener)) return;
+        fastListeners.add(listener);
+        fastSnapshot = fastListeners.toArray(new Listener[0]);
+        update();
+    }
+
+    public static void remove(Listener listener) {
+        if (listeners.remove(listener)) {
+            snapshot = listeners.toArray(new Listener[0]);
+        } else if (fastListeners.remove(listener)) {
+            fastSnapshot = fastListeners.toArray(new Listener[0]);
+        } else {
+            return;
+        }
+        update();
+    }
+
+    private static void update() {
+        if (listeners.isEmpty() && fastListeners.isEmpty()) {
+            if (timer != null) timer.stop();
+            return;
+        }
+        int delay = 1000 / (fastListeners.isEmpty() ? MAX_FPS : FAST_FPS);
+        if (timer == null) {
+            timer = new Timer(delay, e -> fire());
+            timer.setCoalesce(true);
+        }
+        if (timer.getDelay() != delay) {
+            timer.setDelay(delay);
+            timer.setInitialDelay(delay);
+            if (timer.isRunning()) timer.restart();
+        }
+        if (!timer.isRunning()) timer.start();
+    }
+
+    public static boolean isRunning() {
+        return timer != null && timer.isRunning();
+    }
+
+    public static long getTicks() {
+        return ticks;
+    }
+
+    private static void fire() {
+        ticks++;
+        long now = System.currentTimeMillis();
+        for (Listener l : fastSnapshot) {
+            l.tick(now);
+        }
+        // normal listeners stay at MAX_FPS while the timer runs faster
+        if (now - lastNormalTick >= 1000 / MAX_FPS - 2) {
+            lastNormalTick = now;
+            for (Listener l : snapshot) {
+                l.tick(now);
+            }
+        }
+    }
+}
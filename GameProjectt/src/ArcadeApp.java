@@ -2,6 +2,14 @@ import javax.swing.SwingUtilities;
 
 public class ArcadeApp {
     public static void main(String[] args) {
+        // Decode and scale every game's images in the background right away
+        AssetPreloader.start();
+        AudioEngine.start();
+        OutcomeBuffer.start();
+        WordDictionary.start();
+        CardIndex.start();
+        TicketLedger.get(); // replays the ticket log on its own thread
+
         // Start the application by launching the Welcome Screen
         SwingUtilities.invokeLater(() -> {
             new WelcomeScreen();
@@ -0,0 +1,224 @@
+import javax.swing.ImageIcon;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.Toolkit;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * AssetCache.java
+ * - Central registry that every screen goes through to load images
+ * - Each file is decoded once and the decoded image is shared across windows
+ * - Least recently used images are evicted once the memory budget is exceeded
+ * - Hit/miss/eviction counters show how much decode traffic the kiosk sees
+ *
+ * Still images are taken from the pre-decoded AssetPack when one is installed.
+ * The budget defaults to 64 MB and can be changed with the system property
+ * "arcade.assetCacheBytes" or at runtime through setBudgetBytes().
+ */
+public final class AssetCache {
+
+    private static final long DEFAULT_BUDGET_BYTES = 64L * 1024 * 1024;
+
+    // access-ordered so iteration starts at the least recently used entry
+    private static final Map<String, Entry> entries = new LinkedHashMap<>(32, 0.75f, true);
+
+    private static long budgetBytes = Long.getLong("arcade.assetCacheBytes", DEFAULT_BUDGET_BYTES);
+    private static long usedBytes = 0;
+
+    private static long hits = 0;
+    private static long misses = 0;
+    private static long evictions = 0;
+
+    private AssetCache() {
+    }
+
+    private static final class Entry {
+        final ImageIcon icon;
+        final long bytes;
+
+        Entry(ImageIcon icon, long bytes) {
+            this.icon = icon;
+            this.bytes = bytes;
+        }
+    }
+
+    // ===============================
+    // Lookup
+    // ===============================
+
+    /**
+     * Returns the shared icon for the given path, decoding it on first use.
+     * Paths are the same "src/images/..." strings the screens always used;
+     * when the file is not on disk the classpath copy under /images is tried.
+     */
+    public static ImageIcon icon(String path) {
+        ImageIcon cached = lookup(path);
+        if (cached != null) return cached;
+
+        // decode outside the lock so preloader threads can work in parallel
+        ImageIcon icon = decode(path);
+        if (icon.getIconWidth() <= 0 || icon.getIconHeight() <= 0) {
+            return icon; // missing or broken file, nothing worth caching
+        }
+        return store(path, icon);
+    }
+
+    /**
+     * Returns the image scaled to exactly w x h, shared like icon(). The
+     * scaling is done eagerly into a BufferedImage (getScaledInstance would
+     * defer the real work to the first paint on the EDT).
+     */
+    public static ImageIcon scaledIcon(String path, int w, int h) {
+        String key = path + "@" + w + "x" + h;
+        ImageIcon cached = lookup(key);
+        if (cached != null) return cached;
+
+        BufferedImage scaled = AssetPack.image(path, w, h);
+        if (scaled == null) {
+            ImageIcon source = icon(path);
+            if (source.getIconWidth() <= 0) return source;
+            scaled = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = scaled.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source.getImage(), 0, 0, w, h, null);
+            g.dispose();
+        }
+        return store(key, new ImageIcon(scaled));
+    }
+
+    private static synchronized ImageIcon lookup(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            hits++;
+            return entry.icon;
+        }
+        misses++;
+        return null;
+    }
+
+    private static synchronized ImageIcon store(String key, ImageIcon icon) {
+        Entry existing = entries.get(key);
+        if (existing != null) return existing.icon; // another thread got there first
+
+        Entry entry = new Entry(icon, (long) icon.getIconWidth() * icon.getIconHeight() * 4);
+        entries.put(key, entry);
+        usedBytes += entry.bytes;
+        evictOverBudget(key);
+        return icon;
+    }
+
+    /**
+     * Convenience for callers that only need the decoded image.
+     */
+    public static Image image(String path) {
+        return icon(path).getImage();
+    }
+
+    private static ImageIcon decode(String path) {
+        // createImage (unlike getImage) bypasses the toolkit's own hidden cache,
+        // so evicting an entry here really lets the pixels be collected
+        BufferedImage packed = AssetPack.image(path);
+        if (packed != null) {
+            return new ImageIcon(packed); // pre-decoded still image, no PNG decode
+        }
+
+        Toolkit toolkit = Toolkit.getDefaultToolkit();
+        URL url = locate(path);
+        if (url != null) {
+            return new ImageIcon(toolkit.createImage(url));
+        }
+        return new ImageIcon(toolkit.createImage(path));
+    }
+
+    /**
+     * Resolves an asset path to the file on disk, or failing that the
+     * classpath copy. Returns null when neither exists.
+     */
+    static URL locate(String path) {
+        File file = new File(path);
+        if (file.isFile()) {
+            try {
+                return file.toURI().toURL();
+            } catch (MalformedURLException e) {
+                return null;
+            }
+        }
+        return AssetCache.class.getResource(classpathName(path));
+    }
+
+    // "src/images/bg.gif" -> "/images/bg.gif"
+    private static String classpathName(String path) {
+        String name = path.replace('\\', '/');
+        if (name.startsWith("src/")) name = name.substring(3);
+        if (!name.startsWith("/")) name = "/" + name;
+        return name;
+    }
+
+    // ===============================
+    // Eviction
+    // ===============================
+
+    private static void evictOverBudget(String keep) {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (usedBytes > budgetBytes && it.hasNext()) {
+            Map.Entry<String, Entry> eldest = it.next();
+            if (eldest.getKey().equals(keep)) continue; // never evict what we just loaded
+            // windows still showing the icon keep their reference; we only drop ours
+            usedBytes -= eldest.getValue().bytes;
+            it.remove();
+            evictions++;
+        }
+    }
+
+    public static synchronized void setBudgetBytes(long bytes) {
+        budgetBytes = Math.max(0, bytes);
+        evictOverBudget(null);
+    }
+
+    public static synchronized long getBudgetBytes() {
+        return budgetBytes;
+    }
+
+    public static synchronized void clear() {
+        entries.clear();
+        usedBytes = 0;
+    }
+
+    // ===============================
+    // Counters
+    // ===============================
+
+    public static synchronized long getHits() {
+        return hits;
+    }
+
+    public static synchronized long getMisses() {
+        return misses;
+    }
+
+    public static synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public static synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public static synchronized int size() {
+        return entries.size();
+    }
+
+    public static synchronized String stats() {
+        return "AssetCache[entries=" + entries.size()
+                + ", used=" + (usedBytes / 1024) + "KB/" + (budgetBytes / 1024) + "KB"
+                + ", hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + "]";
+    }
+}
@@ -0,0 +1,230 @@
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AssetPack.java
+ * - Read side of the pre-decoded asset pack written by AssetPackCompiler
+ * - The pack is opened once through a memory-mapped FileChannel; pixels are
+ *   raw ARGB ints, so loading an image is a bulk copy out of the page cache
+ *   instead of a PNG/GIF decode
+ * - Located next to the compiled classes (bin/assets.pack) so it does not
+ *   depend on the working directory; "arcade.assetPack" overrides the path
+ * - When there is no pack, or an asset/size is not in it, callers fall back
+ *   to decoding the loose file as before
+ *
+ * File layout (big-endian):
+ *   int magic, int version, int entryCount
+ *   entryCount x { UTF name, int reqW, int reqH, int frameW, int frameH,
+ *                  int frameCount, int[frameCount] delayMs, long dataOffset }
+ *   pixel data, frameCount x frameW x frameH ARGB ints per entry
+ */
+public final class AssetPack {
+
+    static final int MAGIC = 0x41524350; // "ARCP"
+    static final int VERSION = 1;
+    static final String FILE_NAME = "assets.pack";
+
+    /** Pack variants within this fraction of the requested size are close enough to use. */
+    private static final double SIZE_TOLERANCE = 0.10;
+
+    private static AssetPack instance;
+    private static boolean opened = false;
+
+    private final MappedByteBuffer data;
+    private final Map<String, List<Entry>> index = new HashMap<>();
+
+    static final class Entry {
+        final String name;
+        final int reqW, reqH, frameW, frameH;
+        final int[] delays;
+        final long offset;
+
+        Entry(String name, int reqW, int reqH, int frameW, int frameH, int[] delays, long offset) {
+            this.name = name;
+            this.reqW = reqW;
+            this.reqH = reqH;
+            this.frameW = frameW;
+            this.frameH = frameH;
+            this.delays = delays;
+            this.offset = offset;
+        }
+    }
+
+    private AssetPack(MappedByteBuffer data) throws IOException {
+        this.data = data;
+        ByteBuffer header = data.duplicate();
+        if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new IOException("not an arcade asset pack");
+        }
+        int count = header.getInt();
+        for (int i = 0; i < count; i++) {
+            byte[] nameBytes = new byte[header.getShort() & 0xFFFF];
+            header.get(nameBytes);
+            String name = new String(nameBytes, StandardCharsets.UTF_8);
+            int reqW = header.getInt(), reqH = header.getInt();
+            int frameW = header.getInt(), frameH = header.getInt();
+            int[] delays = new int[header.getInt()];
+            for (int f = 0; f < delays.length; f++) delays[f] = header.getInt();
+            long offset = header.getLong();
+            index.computeIfAbsent(name, k -> new ArrayList<>())
+                    .add(new Entry(name, reqW, reqH, frameW, frameH, delays, offset));
+        }
+    }
+
+    /**
+     * Returns the mapped pack, or null if none is installed. Opened lazily and only once.
+     */
+    public static synchronized AssetPack get() {
+        if (!opened) {
+            opened = true;
+            File file = locateFile();
+            if (file != null && file.isFile()) {
+                try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+                     FileChannel channel = raf.getChannel()) {
+                    if (channel.size() <= Integer.MAX_VALUE) {
+                        // the mapping stays valid after the channel is closed
+                        instance = new AssetPack(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+                    }
+                } catch (IOException e) {
+                    instance = null;
+                }
+            }
+        }
+        return instance;
+    }
+
+    static File locateFile() {
+        String override = System.getProperty("arcade.assetPack");
+        if (override != null) return new File(override);
+        try {
+            // bin/ when running from the IDE, the jar's directory otherwise
+            File codeSource = new File(AssetPack.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+            File dir = codeSource.isDirectory() ? codeSource : codeSource.getParentFile();
+            return new File(dir, FILE_NAME);
+        } catch (URISyntaxException | SecurityException | NullPointerException e) {
+            return new File("bin", FILE_NAME);
+        }
+    }
+
+    // "src/images/bg.gif" -> "bg.gif"
+    static String assetName(String path) {
+        String name = path.replace('\\', '/');
+        int slash = name.lastIndexOf("images/");
+        return slash >= 0 ? name.substring(slash + "images/".length()) : name;
+    }
+
+    // ===============================
+    // Lookup
+    // ===============================
+
+    /**
+     * Finds the entry stored for exactly (w, h); 0 x 0 means native size.
+     */
+    Entry exact(String path, int w, int h) {
+        List<Entry> variants = index.get(assetName(path));
+        if (variants == null) return null;
+        for (Entry e : variants) {
+            if (e.reqW == w && e.reqH == h) return e;
+        }
+        return null;
+    }
+
+    /**
+     * Finds the variant closest to (w, h), as long as it is within tolerance.
+     */
+    Entry nearest(String path, int w, int h) {
+        List<Entry> variants = index.get(assetName(path));
+        if (variants == null) return null;
+        Entry best = null;
+        double bestError = SIZE_TOLERANCE;
+        for (Entry e : variants) {
+            if (e.reqW == 0) continue;
+            double error = Math.max(Math.abs(e.reqW - w) / (double) w, Math.abs(e.reqH - h) / (double) h);
+            if (error <= bestError) {
+                best = e;
+                bestError = error;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Copies one frame of an entry out of the mapping into a new image.
+     */
+    BufferedImage frame(Entry e, int frame, int[] scratch) {
+        int pixels = e.frameW * e.frameH;
+        long offset = e.offset + (long) frame * pixels * 4;
+        IntBuffer src = data.duplicate().position((int) offset).slice().asIntBuffer();
+        int[] row = scratch != null && scratch.length >= pixels ? scratch : new int[pixels];
+        src.get(row, 0, pixels);
+        // setDataElements on an INT_ARGB raster is a straight array copy (setRGB goes pixel by pixel)
+        BufferedImage img = new BufferedImage(e.frameW, e.frameH, BufferedImage.TYPE_INT_ARGB);
+        img.getRaster().setDataElements(0, 0, e.frameW, e.frameH, row);
+        if (GraphicsEnvironment.isHeadless()) return img;
+
+        BufferedImage compatible = ScaledImageCache.createCompatibleImage(e.frameW, e.frameH);
+        Graphics2D g = compatible.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.drawImage(img, 0, 0, null);
+        g.dispose();
+        return compatible;
+    }
+
+    // ===============================
+    // Convenience entry points
+    // ===============================
+
+    /**
+     * Native-size still image from the pack, or null.
+     */
+    public static BufferedImage image(String path) {
+        AssetPack pack = get();
+        if (pack == null) return null;
+        Entry e = pack.exact(path, 0, 0);
+        if (e == null || e.delays.length != 1) return null;
+        return pack.frame(e, 0, null);
+    }
+
+    /**
+     * Still image pre-scaled to exactly w x h by the compiler, or null.
+     */
+    public static BufferedImage image(String path, int w, int h) {
+        AssetPack pack = get();
+        if (pack == null) return null;
+        Entry e = pack.exact(path, w, h);
+        if (e == null || e.delays.length != 1) return null;
+        return pack.frame(e, 0, null);
+    }
+
+    /**
+     * Every frame of an animation stored near w x h, or null.
+     */
+    public static GifFrames frames(String path, int w, int h) {
+        AssetPack pack = get();
+        if (pack == null) return null;
+        Entry e = pack.exact(path, w, h);
+        if (e == null) e = pack.nearest(path, w, h);
+        if (e == null) return null;
+        int[] scratch = new int[e.frameW * e.frameH];
+        BufferedImage[] frames = new BufferedImage[e.delays.length];
+        for (int i = 0; i < frames.length; i++) {
+            frames[i] = pack.frame(e, i, scratch);
+        }
+        return GifFrames.of(frames, e.delays.clone());
+    }
+}
@@ -0,0 +1,234 @@
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * AssetPackCompiler.java
+ * - Offline build step that turns src/images into one pre-decoded asset pack
+ * - Every still image is stored at native size; every animated GIF is stored
+ *   frame by frame at the sizes listed in the variants file
+ * - Pre-scaled variants (reel symbols, card faces, backgrounds...) come from
+ *   src/assets.variants, one "file width height" per line (0 0 = native size)
+ * - Unlisted GIFs are stored at native size only if that stays under
+ *   MAX_NATIVE_GIF_BYTES; anything bigger keeps being decoded at runtime
+ *
+ * Usage: java AssetPackCompiler [imagesDir] [variantsFile] [outputPack]
+ * Defaults: src/images src/assets.variants bin/assets.pack
+ */
+public class AssetPackCompiler {
+
+    private static final long MAX_NATIVE_GIF_BYTES = 32L * 1024 * 1024;
+
+    private static final class Variant {
+        final String name;
+        final int w, h;
+
+        Variant(String name, int w, int h) {
+            this.name = name;
+            this.w = w;
+            this.h = h;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Variant)) return false;
+            Variant v = (Variant) o;
+            return v.name.equals(name) && v.w == w && v.h == h;
+        }
+
+        @Override
+        public int hashCode() {
+            return name.hashCode() * 31 * 31 + w * 31 + h;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        File imagesDir = new File(args.length > 0 ? args[0] : "src/images");
+        File variantsFile = new File(args.length > 1 ? args[1] : "src/assets.variants");
+        File out = new File(args.length > 2 ? args[2] : "bin/" + AssetPack.FILE_NAME);
+
+        long start = System.nanoTime();
+        Set<Variant> variants = collectVariants(imagesDir, variantsFile);
+
+        File dataFile = File.createTempFile("assets", ".pixels", out.getAbsoluteFile().getParentFile());
+        ByteArrayOutputStream indexBytes = new ByteArrayOutputStream();
+        DataOutputStream index = new DataOutputStream(indexBytes);
+        int entries = 0;
+
+        try (RandomAccessFile dataRaf = new RandomAccessFile(dataFile, "rw");
+             FileChannel dataChannel = dataRaf.getChannel()) {
+            for (Variant v : variants) {
+                String path = new File(imagesDir, v.name).getPath();
+                if (!new File(path).isFile()) {
+                    System.err.println("skipped (missing): " + v.name);
+                    continue;
+                }
+                BufferedImage[] frames;
+                int[] delays;
+
+                if (v.name.toLowerCase().endsWith(".gif")) {
+                    int[] size = nativeSize(path);
+                    int w = v.w == 0 ? size[0] : v.w;
+                    int h = v.h == 0 ? size[1] : v.h;
+                    // same per-animation cap GifFrames applies at runtime, except for native copies
+                    GifFrames gif = GifFrames.decode(path, w, h, v.w == 0 ? Long.MAX_VALUE : GifFrames.MAX_BYTES_PER_ANIMATION);
+                    if (gif == null) {
+                        System.err.println("skipped (unreadable): " + v.name);
+                        continue;
+                    }
+                    frames = new BufferedImage[gif.frameCount()];
+                    delays = new int[gif.frameCount()];
+                    for (int i = 0; i < frames.length; i++) {
+                        frames[i] = gif.frame(i);
+                        delays[i] = gif.delay(i);
+                    }
+                } else {
+                    BufferedImage img = ImageIO.read(new File(path));
+                    if (img == null) {
+                        System.err.println("skipped (unreadable): " + v.name);
+                        continue;
+                    }
+                    frames = new BufferedImage[] { v.w == 0 ? img : scale(img, v.w, v.h) };
+                    delays = new int[] { 0 };
+                }
+
+                long offset = dataChannel.position();
+                int fw = frames[0].getWidth(), fh = frames[0].getHeight();
+                ByteBuffer buf = ByteBuffer.allocate(fw * fh * 4);
+                int[] row = new int[fw * fh];
+                for (BufferedImage frame : frames) {
+                    frame.getRGB(0, 0, fw, fh, row, 0, fw);
+                    buf.clear();
+                    buf.asIntBuffer().put(row);
+                    buf.limit(row.length * 4);
+                    while (buf.hasRemaining()) dataChannel.write(buf);
+                }
+
+                index.writeUTF(v.name);
+                index.writeInt(v.w);
+                index.writeInt(v.h);
+                index.writeInt(fw);
+                index.writeInt(fh);
+                index.writeInt(delays.length);
+                for (int d : delays) index.writeInt(d);
+                index.writeLong(offset); // relative to the data section for now
+                entries++;
+                System.out.println(v.name + " " + (v.w == 0 ? "native" : v.w + "x" + v.h)
+                        + " -> " + frames.length + " frame(s) of " + fw + "x" + fh);
+            }
+        }
+
+        // header, then the index with offsets rebased onto the data section
+        byte[] rawIndex = indexBytes.toByteArray();
+        long dataStart = 12L + rawIndex.length;
+        ByteBuffer header = ByteBuffer.allocate((int) dataStart);
+        header.putInt(AssetPack.MAGIC).putInt(AssetPack.VERSION).putInt(entries);
+        header.put(rebaseOffsets(rawIndex, entries, dataStart));
+        header.flip();
+
+        try (RandomAccessFile outRaf = new RandomAccessFile(out, "rw");
+             FileChannel outChannel = outRaf.getChannel();
+             RandomAccessFile dataRaf = new RandomAccessFile(dataFile, "r");
+             FileChannel dataChannel = dataRaf.getChannel()) {
+            outChannel.truncate(0);
+            while (header.hasRemaining()) outChannel.write(header);
+            long pos = 0, size = dataChannel.size();
+            while (pos < size) pos += dataChannel.transferTo(pos, size - pos, outChannel);
+            outChannel.force(true);
+        } finally {
+            Files.deleteIfExists(dataFile.toPath());
+        }
+
+        System.out.println("wrote " + entries + " entries, " + (out.length() / 1024) + " KB to " + out
+                + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    private static Set<Variant> collectVariants(File imagesDir, File variantsFile) throws IOException {
+        Set<Variant> variants = new LinkedHashSet<>();
+
+        if (variantsFile.isFile()) {
+            try (BufferedReader in = new BufferedReader(new FileReader(variantsFile))) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    line = line.trim();
+                    if (line.isEmpty() || line.startsWith("#")) continue;
+                    String[] parts = line.split("\\s+");
+                    if (parts.length != 3) continue;
+                    variants.add(new Variant(parts[0], Integer.parseInt(parts[1]), Integer.parseInt(parts[2])));
+                }
+            }
+        }
+
+        String[] files = imagesDir.list();
+        if (files == null) return variants;
+        Arrays.sort(files);
+        List<Variant> natives = new ArrayList<>();
+        for (String name : files) {
+            String lower = name.toLowerCase();
+            if (lower.endsWith(".png")) {
+                natives.add(new Variant(name, 0, 0));
+            } else if (lower.endsWith(".gif")) {
+                int[] size = nativeSize(new File(imagesDir, name).getPath());
+                long bytes = (long) size[0] * size[1] * 4 * size[2];
+                if (bytes <= MAX_NATIVE_GIF_BYTES) natives.add(new Variant(name, 0, 0));
+            }
+        }
+        variants.addAll(natives);
+        return variants;
+    }
+
+    // width, height, frame count
+    private static int[] nativeSize(String path) throws IOException {
+        ImageReader reader = ImageIO.getImageReadersByFormatName("gif").next();
+        try (ImageInputStream in = ImageIO.createImageInputStream(new File(path))) {
+            reader.setInput(in, false);
+            return new int[] { reader.getWidth(0), reader.getHeight(0), reader.getNumImages(true) };
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    private static byte[] rebaseOffsets(byte[] index, int entries, long dataStart) {
+        ByteBuffer buf = ByteBuffer.wrap(index);
+        for (int i = 0; i < entries; i++) {
+            buf.position(buf.position() + 2 + (buf.getShort(buf.position()) & 0xFFFF));
+            buf.position(buf.position() + 16);
+            int frames = buf.getInt();
+            buf.position(buf.position() + frames * 4);
+            int at = buf.position();
+            buf.putLong(at, buf.getLong(at) + dataStart);
+            buf.position(at + 8);
+        }
+        return index;
+    }
+
+    private static BufferedImage scale(BufferedImage src, int w, int h) {
+        BufferedImage out = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = out.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(src, 0, 0, w, h, null);
+        g.dispose();
+        return out;
+    }
+}
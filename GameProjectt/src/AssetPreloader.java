@@ -0,0 +1,128 @@
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AssetPreloader.java
+ * - Started from ArcadeApp.main, before the first window opens
+ * - Decodes and scales every image the Dashboard and the games need on a
+ *   small pool of worker threads, filling AssetCache and GifFrames
+ * - Reports progress to listeners on the EDT (the WelcomeScreen shows it)
+ * - Screens keep asking AssetCache/GifFrames as usual and simply get the
+ *   finished images, so no decoding or scaling is left for the EDT
+ */
+public final class AssetPreloader {
+
+    public interface Listener {
+        /** Called on the EDT after each finished task. */
+        void progress(int done, int total);
+
+        /** Called on the EDT once everything is loaded. */
+        void finished();
+    }
+
+    // still images used at native size (the slot's animated icons are left
+    // to Toolkit, which decodes their frames as they play)
+    private static final String[] ICONS = {
+            "src/images/timezone.png",
+            "src/images/card.png"
+    };
+
+    // animated backgrounds and previews, at the sizes the panels are laid out at
+    private static final Object[][] ANIMATIONS = {
+            { "src/images/arcade.gif", 1024, 768 },
+            { "src/images/final.gif", 1170, 630 },
+            { "src/images/memory.gif", 350, 350 },
+            { "src/images/hangman.gif", 350, 350 },
+            { "src/images/slot.gif", 350, 350 },
+            { "src/images/bg.gif", 886, 513 }
+    };
+
+    private static final List<Listener> listeners = new ArrayList<>();
+    private static final AtomicInteger done = new AtomicInteger();
+    private static int total = 0;
+    private static boolean started = false;
+    private static boolean finished = false;
+
+    private AssetPreloader() {
+    }
+
+    public static synchronized void start() {
+        if (started) return;
+        started = true;
+
+        List<Runnable> tasks = new ArrayList<>();
+        for (String path : ICONS) {
+            tasks.add(() -> AssetCache.icon(path));
+        }
+        tasks.add(() -> AssetCache.scaledIcon(WelcomeScreen.LOGO_PATH, 260, 140));
+        for (String file : SlotConfig.get().getSymbolFiles()) {
+            tasks.add(() -> AssetCache.scaledIcon("src/images/" + file, SpinandWin.SYMBOL_SIZE, SpinandWin.SYMBOL_SIZE));
+        }
+        Set<Integer> cardSizes = new LinkedHashSet<>();
+        for (Object[] size : MatchingCardGame.BOARD_SIZES) cardSizes.add((Integer) size[3]);
+        for (int size : cardSizes) {
+            for (String file : MatchingCardGame.CARD_FILES) {
+                tasks.add(() -> AssetCache.scaledIcon("src/images/" + file, size, size));
+            }
+            tasks.add(() -> AssetCache.scaledIcon("src/images/" + MatchingCardGame.BACK_FILE, size, size));
+        }
+        for (Object[] a : ANIMATIONS) {
+            tasks.add(() -> GifFrames.preload((String) a[0], (Integer) a[1], (Integer) a[2]));
+        }
+        total = tasks.size();
+
+        int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "asset-preloader");
+            t.setDaemon(true);
+            t.setPriority(Thread.NORM_PRIORITY - 1);
+            return t;
+        });
+        for (Runnable task : tasks) {
+            pool.execute(() -> {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    // a broken asset just falls back to loading on demand
+                }
+                done.incrementAndGet();
+                SwingUtilities.invokeLater(AssetPreloader::publish);
+            });
+        }
+        pool.shutdown();
+    }
+
+    /**
+     * Registers a listener on the EDT; it is told the current progress right away.
+     */
+    public static void addListener(Listener listener) {
+        listeners.add(listener);
+        int n = done.get();
+        listener.progress(n, total);
+        if (finished) listener.finished();
+    }
+
+    public static void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    public static boolean isFinished() {
+        return finished;
+    }
+
+    private static void publish() {
+        if (finished) return;
+        int n = done.get();
+        for (Listener l : new ArrayList<>(listeners)) l.progress(n, total);
+        if (n == total) {
+            finished = true;
+            for (Listener l : new ArrayList<>(listeners)) l.finished();
+        }
+    }
+}
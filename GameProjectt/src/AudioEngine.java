@@ -0,0 +1,305 @@
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.DataLine;
+import javax.sound.sampled.SourceDataLine;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AudioEngine.java
+ * - Decodes every game sound to 16-bit stereo PCM once, at startup
+ * - Mixes all playing sounds in software into one long-lived SourceDataLine
+ *   on a single "audio-mixer" thread (no thread or Clip per sound)
+ * - Per-sound voice limits (oldest voice is replaced) and a minimum
+ *   interval between triggers, so sweeping the mouse over buttons is cheap
+ * - Tracks click-to-audio latency: time from play() until the sound's
+ *   first sample is queued, plus what is still buffered in the line
+ *
+ * play() never blocks and is safe to call from any thread. Without an
+ * audio device (or with missing files) it quietly does nothing.
+ */
+public final class AudioEngine {
+
+    private static final float SAMPLE_RATE = 44100f;
+    private static final AudioFormat FORMAT = new AudioFormat(SAMPLE_RATE, 16, 2, true, false);
+    private static final int FRAMES_PER_CHUNK = 256;          // ~5.8 ms per mix pass
+    private static final int LINE_BUFFER_FRAMES = 1024;       // ~23 ms in the device
+    private static final int MAX_VOICES = 16;
+
+    private static final class Sound {
+        final String path;
+        final int maxVoices;
+        final long minIntervalNanos;
+        volatile short[] pcm;                                  // interleaved L/R
+        final AtomicLong lastTrigger = new AtomicLong(Long.MIN_VALUE / 2);
+
+        Sound(String path, int maxVoices, long minIntervalMillis) {
+            this.path = path;
+            this.maxVoices = maxVoices;
+            this.minIntervalNanos = TimeUnit.MILLISECONDS.toNanos(minIntervalMillis);
+        }
+    }
+
+    private static final class Voice {
+        Sound sound;
+        int position;
+        long startedNanos;
+    }
+
+    private static final class Request {
+        final Sound sound;
+        final long requestedNanos;
+
+        Request(Sound sound, long requestedNanos) {
+            this.sound = sound;
+            this.requestedNanos = requestedNanos;
+        }
+    }
+
+    private static final Map<String, Sound> sounds = new LinkedHashMap<>();
+    private static final BlockingQueue<Request> requests = new LinkedBlockingQueue<>();
+
+    private static volatile boolean started = false;
+    private static volatile boolean available = false;
+
+    // metrics
+    private static final AtomicLong played = new AtomicLong();
+    private static final AtomicLong throttled = new AtomicLong();
+    private static final AtomicLong stolen = new AtomicLong();
+    private static final AtomicLong latencyTotalNanos = new AtomicLong();
+    private static final AtomicLong latencyMaxNanos = new AtomicLong();
+
+    static {
+        // key, file, voices, minimum interval between triggers (ms)
+        sounds.put("hover", new Sound("src/sounds/hover.wav", 2, 60));
+        sounds.put("click", new Sound("src/sounds/click.wav", 4, 0));
+        sounds.put("start", new Sound("src/sounds/start.wav", 1, 0));
+        sounds.put("error", new Sound("src/sounds/error.wav", 2, 0));
+        sounds.put("coin", new Sound("src/sounds/coin.wav", 4, 0));
+    }
+
+    private AudioEngine() {
+    }
+
+    // ===============================
+    // Public API
+    // ===============================
+
+    /**
+     * Decodes the sounds and starts the mixer thread. Safe to call repeatedly.
+     */
+    public static synchronized void start() {
+        if (started) return;
+        started = true;
+        Thread mixer = new Thread(AudioEngine::run, "audio-mixer");
+        mixer.setDaemon(true);
+        mixer.setPriority(Thread.MAX_PRIORITY);
+        mixer.start();
+    }
+
+    /**
+     * Triggers a sound by key ("hover", "click", "start", "error", "coin").
+     */
+    public static void play(String key) {
+        if (!started) start();
+        Sound sound = sounds.get(key);
+        if (sound == null) return;
+
+        long now = System.nanoTime();
+        if (sound.minIntervalNanos > 0) {
+            long last = sound.lastTrigger.get();
+            if (now - last < sound.minIntervalNanos || !sound.lastTrigger.compareAndSet(last, now)) {
+                throttled.incrementAndGet();
+                return;
+            }
+        }
+        if (!available || sound.pcm == null) return;
+        requests.offer(new Request(sound, now));
+    }
+
+    public static boolean isAvailable() {
+        return available;
+    }
+
+    public static String stats() {
+        long n = played.get();
+        return "AudioEngine[available=" + available
+                + ", played=" + n + ", throttled=" + throttled.get() + ", stolen=" + stolen.get()
+                + ", avgLatency=" + (n == 0 ? 0 : latencyTotalNanos.get() / n / 1000) + "us"
+                + ", maxLatency=" + latencyMaxNanos.get() / 1000 + "us]";
+    }
+
+    public static long getPlayed() {
+        return played.get();
+    }
+
+    public static long getAverageLatencyMicros() {
+        long n = played.get();
+        return n == 0 ? 0 : latencyTotalNanos.get() / n / 1000;
+    }
+
+    public static long getMaxLatencyMicros() {
+        return latencyMaxNanos.get() / 1000;
+    }
+
+    // ===============================
+    // Decoding
+    // ===============================
+
+    private static short[] decode(String path) {
+        File file = new File(path);
+        if (!file.isFile()) return null;
+        try (AudioInputStream source = AudioSystem.getAudioInputStream(file)) {
+            AudioFormat in = source.getFormat();
+            // first to signed 16-bit PCM at the file's own rate/channels
+            AudioFormat pcm16 = new AudioFormat(in.getSampleRate(), 16, in.getChannels(), true, false);
+            try (AudioInputStream pcm = AudioSystem.getAudioInputStream(pcm16, source)) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] buf = new byte[8192];
+                int n;
+                while ((n = pcm.read(buf)) > 0) out.write(buf, 0, n);
+                return toStereo44k(out.toByteArray(), in.getChannels(), in.getSampleRate());
+            }
+        } catch (Exception e) {
+            return null; // unsupported encoding, play nothing for this key
+        }
+    }
+
+    // resample (linear) and up/down-mix to the engine's fixed output format
+    private static short[] toStereo44k(byte[] bytes, int channels, float rate) {
+        int inFrames = bytes.length / (2 * channels);
+        double step = rate / SAMPLE_RATE;
+        int outFrames = (int) (inFrames / step);
+        short[] out = new short[outFrames * 2];
+        for (int f = 0; f < outFrames; f++) {
+            double src = f * step;
+            int i0 = (int) src;
+            int i1 = Math.min(i0 + 1, inFrames - 1);
+            double t = src - i0;
+            for (int c = 0; c < 2; c++) {
+                int ch = Math.min(c, channels - 1);
+                int a = sample(bytes, i0 * channels + ch);
+                int b = sample(bytes, i1 * channels + ch);
+                out[f * 2 + c] = (short) (a + (b - a) * t);
+            }
+        }
+        return out;
+    }
+
+    private static int sample(byte[] bytes, int index) {
+        return (short) ((bytes[index * 2] & 0xFF) | (bytes[index * 2 + 1] << 8));
+    }
+
+    // ===============================
+    // Mixer thread
+    // ===============================
+
+    private static void run() {
+        for (Sound s : sounds.values()) {
+            s.pcm = decode(s.path);
+        }
+
+        SourceDataLine line;
+        try {
+            int bytesPerFrame = FORMAT.getFrameSize();
+            line = (SourceDataLine) AudioSystem.getLine(new DataLine.Info(SourceDataLine.class, FORMAT));
+            line.open(FORMAT, LINE_BUFFER_FRAMES * bytesPerFrame);
+            line.start();
+        } catch (Exception | LinkageError e) {
+            available = false; // headless box or no sound card
+            return;
+        }
+        available = true;
+
+        Voice[] voices = new Voice[MAX_VOICES];
+        for (int i = 0; i < MAX_VOICES; i++) voices[i] = new Voice();
+        int[] mix = new int[FRAMES_PER_CHUNK * 2];
+        byte[] out = new byte[FRAMES_PER_CHUNK * 4];
+        int active = 0;
+
+        while (true) {
+            try {
+                // sleep while silent; the line just drains
+                Request r = active == 0 ? requests.take() : requests.poll();
+                while (r != null) {
+                    startVoice(voices, r, line);
+                    r = requests.poll();
+                }
+            } catch (InterruptedException e) {
+                break;
+            }
+
+            Arrays.fill(mix, 0);
+            active = 0;
+            for (Voice v : voices) {
+                if (v.sound == null) continue;
+                short[] pcm = v.sound.pcm;
+                int n = Math.min(mix.length, pcm.length - v.position);
+                for (int i = 0; i < n; i++) mix[i] += pcm[v.position + i];
+                v.position += n;
+                if (v.position >= pcm.length) v.sound = null;
+                else active++;
+            }
+
+            for (int i = 0; i < mix.length; i++) {
+                int s = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, mix[i]));
+                out[i * 2] = (byte) s;
+                out[i * 2 + 1] = (byte) (s >> 8);
+            }
+            line.write(out, 0, out.length); // blocks once the device buffer is full, pacing the loop
+        }
+        line.close();
+    }
+
+    /**
+     * Starts a voice for the request, replacing the oldest one of the same
+     * sound when its limit is reached (or the oldest overall when all are busy).
+     */
+    private static void startVoice(Voice[] voices, Request r, SourceDataLine line) {
+        Voice free = null, oldestSame = null;
+        int sameCount = 0;
+        for (Voice v : voices) {
+            if (v.sound == null) {
+                if (free == null) free = v;
+            } else if (v.sound == r.sound) {
+                sameCount++;
+                if (oldestSame == null || v.startedNanos < oldestSame.startedNanos) oldestSame = v;
+            }
+        }
+
+        Voice target;
+        if (sameCount >= r.sound.maxVoices || free == null) {
+            target = oldestSame != null ? oldestSame : oldest(voices);
+            stolen.incrementAndGet();
+        } else {
+            target = free;
+        }
+        target.sound = r.sound;
+        target.position = 0;
+        target.startedNanos = System.nanoTime();
+
+        // what the device still has queued will play before this sound
+        int queuedFrames = (line.getBufferSize() - line.available()) / FORMAT.getFrameSize();
+        long latency = target.startedNanos - r.requestedNanos
+                + (long) (queuedFrames * 1_000_000_000L / SAMPLE_RATE);
+        played.incrementAndGet();
+        latencyTotalNanos.addAndGet(latency);
+        latencyMaxNanos.accumulateAndGet(latency, Math::max);
+    }
+
+    private static Voice oldest(Voice[] voices) {
+        Voice oldest = voices[0];
+        for (Voice v : voices) {
+            if (v.startedNanos < oldest.startedNanos) oldest = v;
+        }
+        return oldest;
+    }
+}
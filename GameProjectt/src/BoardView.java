@@ -0,0 +1,220 @@
+import javax.swing.JComponent;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Stroke;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+
+/**
+ * BoardView.java
+ * - Draws a whole MemoryBoard in one component instead of a JButton per card
+ * - Virtualized: paintComponent() only draws the cards inside the clip, so a
+ *   board of thousands of cards inside a JScrollPane costs what is visible
+ * - Clicks map to a card with arithmetic (row * columns + column), O(1)
+ * - repaintCard() repaints just that card's cell
+ * - Each card look (back, every face, every matched face) is composed once
+ *   with its frame, so drawing a card is a single blit
+ *
+ * When a board has more pairs than face images, faces repeat and each card
+ * carries its pair number so pairs stay distinguishable.
+ */
+public class BoardView extends JComponent implements Scrollable {
+
+    private static final long serialVersionUID = 1L;
+
+    public interface Listener {
+        /** Called on the EDT when a card is clicked. */
+        void cardClicked(int index);
+    }
+
+    private static final Color BACKGROUND = new Color(8, 10, 30);
+    private static final Color CARD = new Color(20, 22, 40);
+    private static final Color BORDER = new Color(255, 64, 180);
+    private static final Color MATCHED_BORDER = new Color(90, 40, 80);
+    private static final Color BADGE = new Color(0, 0, 0, 170);
+    private static final Stroke BORDER_STROKE = new BasicStroke(3f);
+
+    private final MemoryBoard board;
+    private final BufferedImage back;
+    private final BufferedImage[] faces;
+    private final BufferedImage[] matchedFaces;
+    private final int columns, rows;
+    private final int cell, gap;
+    private final int boardWidth, boardHeight;
+    private final String[] labels;   // pair numbers, only when faces repeat
+    private final Font labelFont;
+
+    private Listener listener;
+
+    public BoardView(MemoryBoard board, SpriteAtlas atlas, int[] faceSprites, int backSprite,
+                     int columns, int cell, int gap) {
+        this.board = board;
+        this.back = composeCard(atlas, backSprite, cell, BORDER);
+        this.faces = new BufferedImage[faceSprites.length];
+        this.matchedFaces = new BufferedImage[faceSprites.length];
+        for (int i = 0; i < faceSprites.length; i++) {
+            faces[i] = composeCard(atlas, faceSprites[i], cell, BORDER);
+            matchedFaces[i] = composeCard(atlas, faceSprites[i], cell, MATCHED_BORDER);
+        }
+        this.columns = columns;
+        this.rows = (board.cards() + columns - 1) / columns;
+        this.cell = cell;
+        this.gap = gap;
+        this.labelFont = new Font("Arial", Font.BOLD, Math.max(10, cell / 5));
+
+        if (board.pairs() > faces.length) {
+            labels = new String[board.pairs()];
+            for (int i = 0; i < labels.length; i++) labels[i] = Integer.toString(i + 1);
+        } else {
+            labels = null;
+        }
+
+        setOpaque(true);
+        this.boardWidth = gap + columns * (cell + gap);
+        this.boardHeight = gap + rows * (cell + gap);
+        setPreferredSize(new Dimension(boardWidth, boardHeight));
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                int index = indexAt(e.getX(), e.getY());
+                if (index >= 0 && listener != null) listener.cardClicked(index);
+            }
+        });
+    }
+
+    private static BufferedImage composeCard(SpriteAtlas atlas, int sprite, int cell, Color border) {
+        BufferedImage card = ScaledImageCache.createCompatibleImage(cell, cell);
+        Graphics2D g = card.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setColor(BACKGROUND);
+        g.fillRect(0, 0, cell, cell);
+        g.setColor(CARD);
+        g.fillRoundRect(0, 0, cell, cell, 12, 12);
+        atlas.draw(g, sprite, (cell - atlas.width(sprite)) / 2, (cell - atlas.height(sprite)) / 2);
+        g.setStroke(BORDER_STROKE);
+        g.setColor(border);
+        g.drawRoundRect(1, 1, cell - 3, cell - 3, 12, 12);
+        g.dispose();
+        return card;
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    public MemoryBoard getBoard() {
+        return board;
+    }
+
+    /** Card under a point, or -1 for gaps and empty space. */
+    public int indexAt(int x, int y) {
+        x -= originX() + gap;
+        y -= originY() + gap;
+        if (x < 0 || y < 0) return -1;
+        int pitch = cell + gap;
+        int column = x / pitch, row = y / pitch;
+        if (column >= columns || x % pitch >= cell || y % pitch >= cell) return -1;
+        int index = row * columns + column;
+        return index < board.cards() ? index : -1;
+    }
+
+    public void repaintCard(int index) {
+        int pitch = cell + gap;
+        repaint(originX() + gap + (index % columns) * pitch, originY() + gap + (index / columns) * pitch, cell, cell);
+    }
+
+    // small boards are centered when the viewport is larger than the board
+    private int originX() {
+        return Math.max(0, (getWidth() - boardWidth) / 2);
+    }
+
+    private int originY() {
+        return Math.max(0, (getHeight() - boardHeight) / 2);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+        g.setColor(BACKGROUND);
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+        Graphics2D g2 = (Graphics2D) g;
+        g2.setFont(labelFont);
+        FontMetrics fm = g2.getFontMetrics();
+
+        int pitch = cell + gap;
+        int left = originX() + gap, top = originY() + gap;
+        int firstColumn = Math.max(0, (clip.x - left) / pitch);
+        int lastColumn = Math.min(columns - 1, (clip.x + clip.width - left) / pitch);
+        int firstRow = Math.max(0, (clip.y - top) / pitch);
+        int lastRow = Math.min(rows - 1, (clip.y + clip.height - top) / pitch);
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                int index = row * columns + column;
+                if (index >= board.cards()) break;
+                paintCard(g2, fm, index, left + column * pitch, top + row * pitch);
+            }
+        }
+    }
+
+    private void paintCard(Graphics2D g, FontMetrics fm, int index, int x, int y) {
+        if (!board.isRevealed(index)) {
+            g.drawImage(back, x, y, null);
+            return;
+        }
+        int id = board.idAt(index);
+        int face = id % faces.length;
+        g.drawImage(board.isMatched(index) ? matchedFaces[face] : faces[face], x, y, null);
+
+        if (labels != null) {
+            String label = labels[id];
+            int w = fm.stringWidth(label) + 8;
+            g.setColor(BADGE);
+            g.fillRect(x + cell - w - 6, y + 6, w, fm.getHeight());
+            g.setColor(Color.WHITE);
+            g.drawString(label, x + cell - w - 2, y + 6 + fm.getAscent());
+        }
+    }
+
+    // ===============================
+    // Scrollable
+    // ===============================
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return getPreferredSize();
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visible, int orientation, int direction) {
+        return cell + gap;
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visible, int orientation, int direction) {
+        int page = orientation == SwingConstants.VERTICAL ? visible.height : visible.width;
+        return Math.max(cell + gap, page - (cell + gap));
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return getParent() != null && getParent().getWidth() > boardWidth;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return getParent() != null && getParent().getHeight() > boardHeight;
+    }
+}
@@ -0,0 +1,445 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * CardIndex.java
+ * - Card number -> account record, for the swipe at the welcome screen
+ * - An open-addressing (linear probing) hash table that lives in a
+ *   memory-mapped file, not on the heap: millions of cards cost no objects
+ *   and no GC work, opening is a map() and lookups fault in only the pages
+ *   they touch
+ * - A lookup hashes the card number and reads fixed 32-byte slots straight
+ *   from the mapping; a hit or a miss is usually one cache line
+ * - put() inserts or updates one card in place; when the table passes
+ *   MAX_LOAD it is rehashed into a file twice the size, which then replaces
+ *   the old one. Lookups keep using the old mapping until the swap
+ * - rebuild() makes a fresh index from a flat export (see CardIndexBuilder)
+ *   in two sequential passes over the mapped export: count, then insert
+ * - One writer at a time (put and rebuild are synchronized); any number of
+ *   readers. A slot's key is published last with a release store, so a
+ *   reader that sees the key sees the record behind it
+ *
+ * Slot: card number long (0 = empty), account long, status int,
+ * member since int (epoch day), reserved long. The header holds the magic,
+ * version, slot size, capacity and the number of cards.
+ *
+ * The file is "cards.index", replaceable with "arcade.cardIndex". A new
+ * index holds DEMO_CARD_NUMBER for the wallet's DEFAULT_CARD.
+ */
+public final class CardIndex implements Closeable {
+
+    /** Returned by account() for a card number that is not in the index. */
+    public static final long NOT_FOUND = -1;
+
+    /** Card status. */
+    public static final int ACTIVE = 1;
+    public static final int BLOCKED = 2;
+
+    /** The card offered at the reader when none is typed in. */
+    public static final long DEMO_CARD_NUMBER = 6001_0000_0000_0001L;
+
+    static final int SLOT_BYTES = 32;
+    static final int HEADER_BYTES = 64;
+    static final int MIN_CAPACITY = 1 << 10;
+    static final int MAX_CAPACITY = 1 << 25; // keeps one mapping under 2 GB
+    private static final double MAX_LOAD = 0.7;
+    private static final long MAGIC = 0x4152434341524458L; // "ARCCARDX"
+    private static final int VERSION = 1;
+
+    private static final VarHandle LONGS =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static CardIndex instance;
+    private static boolean started = false;
+
+    private final Path path;
+    private volatile Table table;
+
+    /** One mapped file; replaced as a whole when the index grows. */
+    private static final class Table {
+        final FileChannel channel;
+        final MappedByteBuffer map;
+        final int mask;
+        int size; // written by the one writer only
+
+        Table(FileChannel channel, MappedByteBuffer map, int capacity, int size) {
+            this.channel = channel;
+            this.map = map;
+            this.mask = capacity - 1;
+            this.size = size;
+        }
+
+        /** Slot holding the card, or -1. */
+        int find(long cardNumber) {
+            int slot = (int) spread(cardNumber) & mask;
+            while (true) {
+                long key = (long) LONGS.getAcquire(map, offset(slot));
+                if (key == cardNumber) return slot;
+                if (key == 0) return -1;
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        /** Inserts or updates; returns true if the card is new. */
+        boolean put(long cardNumber, long account, int status, int memberSince) {
+            int slot = (int) spread(cardNumber) & mask;
+            while (true) {
+                int at = offset(slot);
+                long key = map.getLong(at);
+                if (key == cardNumber || key == 0) {
+                    map.putLong(at + 8, account);
+                    map.putInt(at + 16, status);
+                    map.putInt(at + 20, memberSince);
+                    if (key == cardNumber) return false;
+                    LONGS.setRelease(map, at, cardNumber);
+                    size++;
+                    map.putLong(24, size);
+                    return true;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        int capacity() {
+            return mask + 1;
+        }
+
+        void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    private CardIndex(Path path, Table table) {
+        this.path = path;
+        this.table = table;
+    }
+
+    public static synchronized CardIndex get() {
+        if (instance == null) {
+            String path = System.getProperty("arcade.cardIndex", "cards.index");
+            try {
+                instance = open(Paths.get(path));
+                if (instance.size() == 0) {
+                    instance.put(DEMO_CARD_NUMBER, Wallet.DEFAULT_CARD, ACTIVE, 0);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("cannot open card index " + path, e);
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Opens the index and the wallet on a "card-index" thread, so the first
+     * swipe at the welcome screen does not wait on either.
+     */
+    public static synchronized void start() {
+        if (started) return;
+        started = true;
+        Thread loader = new Thread(() -> {
+            try {
+                get();
+                Wallet.get();
+            } catch (RuntimeException e) {
+                System.err.println("Card index not opened: " + e.getMessage());
+            }
+        }, "card-index");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /** Opens (or creates) an index file. */
+    public static CardIndex open(Path path) throws IOException {
+        return new CardIndex(path, openTable(path, MIN_CAPACITY));
+    }
+
+    private static Table openTable(Path path, int newCapacity) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() < HEADER_BYTES) {
+                return createTable(channel, newCapacity);
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header, header.position()) > 0) { }
+            long capacity = header.getLong(16);
+            long size = header.getLong(24);
+            if (header.getLong(0) != MAGIC || header.getInt(8) != VERSION || header.getInt(12) != SLOT_BYTES
+                    || capacity < MIN_CAPACITY || capacity > MAX_CAPACITY || Long.bitCount(capacity) != 1
+                    || size < 0 || size > capacity || channel.size() < bytesFor((int) capacity)) {
+                throw new IOException("not a card index (or an unsupported version)");
+            }
+            return new Table(channel, map(channel, (int) capacity), (int) capacity, (int) size);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static Table createTable(FileChannel channel, int capacity) throws IOException {
+        channel.truncate(0);
+        MappedByteBuffer map = map(channel, capacity); // extends the file with zeroes: all slots empty
+        map.putLong(0, MAGIC).putInt(8, VERSION).putInt(12, SLOT_BYTES).putLong(16, capacity).putLong(24, 0);
+        return new Table(channel, map, capacity, 0);
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, int capacity) throws IOException {
+        MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytesFor(capacity));
+        map.order(ByteOrder.LITTLE_ENDIAN);
+        return map;
+    }
+
+    // ===============================
+    // Lookups (lock-free, allocation-free)
+    // ===============================
+
+    /** The card's account (its wallet card id), or NOT_FOUND. */
+    public long account(long cardNumber) {
+        if (cardNumber <= 0) return NOT_FOUND;
+        Table t = table;
+        int slot = t.find(cardNumber);
+        return slot < 0 ? NOT_FOUND : t.map.getLong(offset(slot) + 8);
+    }
+
+    /** ACTIVE, BLOCKED, or 0 if the card is not in the index. */
+    public int status(long cardNumber) {
+        if (cardNumber <= 0) return 0;
+        Table t = table;
+        int slot = t.find(cardNumber);
+        return slot < 0 ? 0 : t.map.getInt(offset(slot) + 16);
+    }
+
+    /** Day (since 1970-01-01) the card was issued, or -1 if it is not in the index. */
+    public int memberSince(long cardNumber) {
+        if (cardNumber <= 0) return -1;
+        Table t = table;
+        int slot = t.find(cardNumber);
+        return slot < 0 ? -1 : t.map.getInt(offset(slot) + 20);
+    }
+
+    public boolean contains(long cardNumber) {
+        return cardNumber > 0 && table.find(cardNumber) >= 0;
+    }
+
+    public int size() {
+        return table.size;
+    }
+
+    public int capacity() {
+        return table.capacity();
+    }
+
+    // ===============================
+    // Inserts
+    // ===============================
+
+    /** Adds a card, or updates it if it is already there. Card numbers are positive. */
+    public synchronized void put(long cardNumber, long account, int status, int memberSince) throws IOException {
+        if (cardNumber <= 0) throw new IllegalArgumentException("bad card number: " + cardNumber);
+        Table t = table;
+        if (t.size + 1 > t.capacity() * MAX_LOAD && t.find(cardNumber) < 0) {
+            t = grow(t);
+        }
+        t.put(cardNumber, account, status, memberSince);
+    }
+
+    /** Flushes inserts to disk; until then they are only in the page cache. */
+    public synchronized void sync() {
+        table.map.force();
+    }
+
+    // rehash into a file twice the size, then swap it in under the real name
+    private Table grow(Table old) throws IOException {
+        if (old.capacity() >= MAX_CAPACITY) throw new IOException("card index full at " + old.size + " cards");
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.deleteIfExists(temp);
+        Table grown = openTable(temp, old.capacity() * 2);
+        copy(old, grown);
+        grown.map.force();
+        replace(temp, path);
+        table = grown;
+        old.close();
+        return grown;
+    }
+
+    private static void copy(Table from, Table to) {
+        for (int slot = 0; slot <= from.mask; slot++) {
+            int at = offset(slot);
+            long key = from.map.getLong(at);
+            if (key != 0) {
+                to.put(key, from.map.getLong(at + 8), from.map.getInt(at + 16), from.map.getInt(at + 20));
+            }
+        }
+    }
+
+    // ===============================
+    // Rebuild from a flat export
+    // ===============================
+
+    /**
+     * Replaces the whole index with the cards in an export file: one card
+     * per line, "cardNumber,account[,status[,memberSince]]", where blank
+     * lines, '#' comments and a header line are skipped. Status defaults
+     * to ACTIVE. The new index is built beside the old one and swapped in,
+     * so lookups keep working during the rebuild. Returns the card count.
+     */
+    public synchronized int rebuild(Path export) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.deleteIfExists(temp);
+        Table fresh;
+        try (FileChannel in = FileChannel.open(export, StandardOpenOption.READ)) {
+            long size = in.size();
+            if (size > Integer.MAX_VALUE) throw new IOException("card export larger than 2 GB");
+            MappedByteBuffer data = in.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            fresh = openTable(temp, capacityFor(countLines(data)));
+            try {
+                parse(data, fresh);
+                fresh.map.force();
+            } catch (IOException | RuntimeException e) {
+                fresh.close();
+                throw e;
+            }
+        }
+        replace(temp, path);
+        Table old = table;
+        table = fresh;
+        old.close();
+        return fresh.size;
+    }
+
+    private static int countLines(ByteBuffer data) {
+        int lines = 0;
+        for (int i = 0, n = data.limit(); i < n; i++) {
+            if (data.get(i) == '\n') lines++;
+        }
+        return lines + 1;
+    }
+
+    private static int capacityFor(int cards) throws IOException {
+        long wanted = (long) Math.ceil(cards / MAX_LOAD);
+        if (wanted > MAX_CAPACITY) throw new IOException(cards + " cards is more than one index holds");
+        int capacity = MIN_CAPACITY;
+        while (capacity < wanted) capacity <<= 1;
+        return capacity;
+    }
+
+    // parses digits straight from the mapped bytes: no lines, no Strings
+    private static void parse(ByteBuffer data, Table table) throws IOException {
+        long[] fields = new long[4];
+        int n = data.limit();
+        int pos = 0, lineNumber = 0;
+        while (pos < n) {
+            lineNumber++;
+            int end = pos;
+            while (end < n && data.get(end) != '\n') end++;
+            int next = end + 1;
+            if (end > pos && data.get(end - 1) == '\r') end--;
+
+            byte first = end > pos ? data.get(pos) : (byte) '#';
+            if (first >= '0' && first <= '9') {
+                int count = 0;
+                long value = 0;
+                boolean digits = false;
+                for (int i = pos; i <= end; i++) {
+                    byte b = i < end ? data.get(i) : (byte) ',';
+                    if (b >= '0' && b <= '9') {
+                        if (value > (Long.MAX_VALUE - (b - '0')) / 10) {
+                            throw new IOException("card export line " + lineNumber + ": number too long");
+                        }
+                        value = value * 10 + (b - '0');
+                        digits = true;
+                    } else if (b == ',') {
+                        if (count < fields.length) fields[count] = digits ? value : -1;
+                        count++;
+                        value = 0;
+                        digits = false;
+                    } else if (b != ' ' && b != '-') { // "6001 0000 ..." and "6001-0000-..." are fine
+                        throw new IOException("card export line " + lineNumber + ": unexpected '" + (char) b + "'");
+                    }
+                }
+                if (count < 2 || fields[0] <= 0 || fields[1] < 0) {
+                    throw new IOException("card export line " + lineNumber + ": needs a card number and an account");
+                }
+                int status = count > 2 && fields[2] >= 0 ? (int) fields[2] : ACTIVE;
+                int since = count > 3 && fields[3] >= 0 ? (int) fields[3] : 0;
+                table.put(fields[0], fields[1], status, since);
+            }
+            // anything else is blank, a comment or the header line
+            pos = next;
+        }
+    }
+
+    // ===============================
+    // Helpers
+    // ===============================
+
+    private static void replace(Path from, Path to) throws IOException {
+        try {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (java.nio.file.AtomicMoveNotSupportedException e) {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static long bytesFor(int capacity) {
+        return HEADER_BYTES + (long) capacity * SLOT_BYTES;
+    }
+
+    private static int offset(int slot) {
+        return HEADER_BYTES + slot * SLOT_BYTES;
+    }
+
+    // card numbers are sequential in blocks; mix every bit into the low ones
+    private static long spread(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+
+    /** Parses a typed or swiped card number ("6001 0000 0000 0001"), or -1. */
+    public static long parseCardNumber(String text) {
+        if (text == null) return -1;
+        long value = 0;
+        boolean digits = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (value > (Long.MAX_VALUE - (c - '0')) / 10) return -1;
+                value = value * 10 + (c - '0');
+                digits = true;
+            } else if (c != ' ' && c != '-') {
+                return -1;
+            }
+        }
+        return digits && value > 0 ? value : -1;
+    }
+
+    /** "6001 0000 0000 0001" */
+    public static String formatCardNumber(long cardNumber) {
+        String digits = Long.toString(cardNumber);
+        StringBuilder sb = new StringBuilder(digits.length() + digits.length() / 4);
+        for (int i = 0; i < digits.length(); i++) {
+            if (i > 0 && (digits.length() - i) % 4 == 0) sb.append(' ');
+            sb.append(digits.charAt(i));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        table.map.force();
+        table.close();
+    }
+}
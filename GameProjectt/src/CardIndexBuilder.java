@@ -0,0 +1,142 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * CardIndexBuilder.java
+ * - Rebuilds a CardIndex from a flat member export, then measures it:
+ *   random lookups of present and absent cards, and incremental inserts
+ * - Given a number instead of a file it first writes a synthetic export of
+ *   that many cards (issued in blocks, 1% blocked), to size the index for a
+ *   full member base without real data
+ * - Reports GC runs during the lookups; the index is off-heap, so there
+ *   should be none
+ *
+ * Usage: java CardIndexBuilder [export.csv | cards] [indexFile] [lookups]
+ * Defaults: 1000000 synthetic cards, a temp index, 10000000 lookups.
+ * Pass "cards.index" as indexFile to rebuild the arcade's own index.
+ */
+public class CardIndexBuilder {
+
+    private static final long FIRST_CARD = 6001_0000_0000_0000L;
+    private static final long CARD_STEP = 7919; // cards are issued in gaps, not 1, 2, 3...
+    private static final int INSERTS = 100_000;
+
+    public static void main(String[] args) throws IOException {
+        String source = args.length > 0 ? args[0] : "1000000";
+        long lookups = args.length > 2 ? Long.parseLong(args[2]) : 10_000_000L;
+
+        Path export;
+        int synthetic = -1;
+        if (new File(source).isFile()) {
+            export = Paths.get(source);
+        } else {
+            synthetic = Integer.parseInt(source);
+            export = File.createTempFile("cards", ".csv").toPath();
+            export.toFile().deleteOnExit();
+            writeExport(export, synthetic);
+        }
+
+        Path indexPath;
+        if (args.length > 1) {
+            indexPath = Paths.get(args[1]);
+        } else {
+            File temp = File.createTempFile("cards", ".index");
+            temp.deleteOnExit();
+            new File(temp.getPath() + ".tmp").deleteOnExit();
+            indexPath = temp.toPath();
+        }
+        Files.deleteIfExists(indexPath);
+
+        CardIndex index = CardIndex.open(indexPath);
+        long t0 = System.nanoTime();
+        int cards = index.rebuild(export);
+        double rebuildSeconds = (System.nanoTime() - t0) / 1e9;
+
+        // lookups: half hits (when the cards are known), half misses
+        SplittableRandom random = new SplittableRandom(42);
+        long checksum = 0, hits = 0;
+        long gcBefore = gcCount();
+        long t1 = System.nanoTime();
+        for (long i = 0; i < lookups; i++) {
+            long card = synthetic > 0 && (i & 1) == 0
+                    ? cardNumber(random.nextInt(synthetic))
+                    : FIRST_CARD + 1 + random.nextLong(CARD_STEP * Math.max(1, cards));
+            long account = index.account(card);
+            if (account != CardIndex.NOT_FOUND) {
+                hits++;
+                checksum += account;
+            }
+        }
+        double lookupNanos = (System.nanoTime() - t1) / (double) Math.max(1, lookups);
+        long gcDuringLookups = gcCount() - gcBefore;
+
+        // incremental inserts past the rebuilt set; may grow the table
+        int capacityBefore = index.capacity();
+        long t2 = System.nanoTime();
+        long base = FIRST_CARD + CARD_STEP * ((long) cards + 1) + 3;
+        for (int i = 0; i < INSERTS; i++) {
+            index.put(base + i * CARD_STEP, (long) cards + i + 1, CardIndex.ACTIVE, 20_000);
+        }
+        double insertNanos = (System.nanoTime() - t2) / (double) INSERTS;
+        boolean insertsFound = index.account(base) == cards + 1L
+                && index.account(base + (INSERTS - 1) * CARD_STEP) == (long) cards + INSERTS;
+        index.close();
+
+        System.out.printf(Locale.ROOT,
+                "{%n"
+                + "  \"cards\": %d,%n"
+                + "  \"exportBytes\": %d,%n"
+                + "  \"rebuildSeconds\": %.3f,%n"
+                + "  \"cardsPerSecond\": %.0f,%n"
+                + "  \"capacity\": %d,%n"
+                + "  \"indexBytes\": %d,%n"
+                + "  \"lookups\": %d,%n"
+                + "  \"hits\": %d,%n"
+                + "  \"lookupNanos\": %.1f,%n"
+                + "  \"gcDuringLookups\": %d,%n"
+                + "  \"inserts\": %d,%n"
+                + "  \"insertNanos\": %.1f,%n"
+                + "  \"grewDuringInserts\": %b,%n"
+                + "  \"insertsFound\": %b,%n"
+                + "  \"checksum\": %d%n"
+                + "}%n",
+                cards, Files.size(export), rebuildSeconds, cards / Math.max(1e-9, rebuildSeconds),
+                capacityBefore, Files.size(indexPath), lookups, hits, lookupNanos, gcDuringLookups,
+                INSERTS, insertNanos, index.capacity() > capacityBefore, insertsFound, checksum);
+    }
+
+    private static long cardNumber(int i) {
+        return FIRST_CARD + i * CARD_STEP;
+    }
+
+    private static void writeExport(Path export, int cards) throws IOException {
+        SplittableRandom random = new SplittableRandom(7);
+        try (BufferedWriter w = Files.newBufferedWriter(export, StandardCharsets.US_ASCII)) {
+            w.write("card_number,account,status,member_since");
+            w.newLine();
+            for (int i = 0; i < cards; i++) {
+                int status = random.nextInt(100) == 0 ? CardIndex.BLOCKED : CardIndex.ACTIVE;
+                int since = 15_000 + random.nextInt(5_500); // 2011..2026
+                w.write(cardNumber(i) + "," + (i + 1) + "," + status + "," + since);
+                w.newLine();
+            }
+        }
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+}
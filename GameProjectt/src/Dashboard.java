@@ -1,25 +1,32 @@
-import javax.sound.sampled.*;
 import javax.swing.*;
 import javax.swing.border.LineBorder;
 import java.awt.*;
 import java.awt.event.*;
-import java.io.File;
-import java.util.HashMap;
-import java.util.Map;
+import java.text.DateFormat;
+import java.util.Date;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Dashboard.java
  * - Arcade-themed dashboard with GIF panels and buttons
  * - Confirmation dialog with arcade styling
  * - Hover effects that change GIF border to bright yellow
- * - Launches MatchingCardGame and SpinandWin
+ * - Launches MatchingCardGame, Hangman and SpinandWin
+ * - Shows the card's tickets and redeems them through TicketLedger,
+ *   off the EDT
+ * - Sells time-play passes (TimeSessions); while one runs, games launch
+ *   without a charge, and its warnings and expiry pop up over any window
  * - When game is closed, Dashboard reopens automatically.
  */
 public class Dashboard extends JFrame {
 
     private JLabel balanceLabel;
-    private double balance;
-    private boolean gameOpen = false;
+    private JLabel ticketsLabel;
+    private JLabel timeLabel;
+    private final long card;               // balance lives in Wallet, per card
+    private final AtomicBoolean gameOpen = new AtomicBoolean(); // claimed before the debit
+    private final AtomicBoolean buyingTime = new AtomicBoolean(); // one pass purchase at a time
     private ScaledGifPanel gif1, gif2, gif3;
 
     private static final Color ARCADE_PURPLE = new Color(153, 51, 255);
@@ -35,13 +42,12 @@ public class Dashboard extends JFrame {
 
     private boolean reminderShown = false;
 
-    
-    private final Map<String, String> sounds = new HashMap<>();
+    private static final AtomicBoolean timeAlertsInstalled = new AtomicBoolean();
 
     
     
-    public Dashboard(double initialBalance) {
-        this.balance = initialBalance;
+    public Dashboard(long card) {
+        this.card = card;
 
         setTitle("Timezone Arcade - Dashboard");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -58,19 +64,12 @@ public class Dashboard extends JFrame {
             }
         });
         
-        // Configure sounds
-        sounds.put("hover", "src/sounds/hover.wav");
-        sounds.put("click", "src/sounds/click.wav");
-        sounds.put("start", "src/sounds/start.wav");
-        sounds.put("error", "src/sounds/error.wav");
-        sounds.put("coin", "src/sounds/coin.wav");
-
         // Main background panel
         BackgroundPanel mainPanel = new BackgroundPanel(BACKGROUND_GIF_PATH);
         setContentPane(mainPanel);
 
         // --- Logo ---
-        ImageIcon logoIcon = new ImageIcon(LOGO_PATH);
+        ImageIcon logoIcon = AssetCache.icon(LOGO_PATH);
         JLabel logoLabel = new JLabel(logoIcon);
         logoLabel.setHorizontalAlignment(SwingConstants.CENTER);
         JPanel logoPanel = new JPanel(new BorderLayout());
@@ -120,12 +119,50 @@ public class Dashboard extends JFrame {
         bottomPanel.add(buttonsPanel, BorderLayout.CENTER);
 
         // Balance label
-        balanceLabel = new JLabel("Balance: ₱" + String.format("%.2f", balance));
+        balanceLabel = new JLabel();
+        refreshBalance();
         balanceLabel.setFont(new Font(Font.MONOSPACED, Font.BOLD, 22));
         balanceLabel.setForeground(Color.YELLOW);
 
-        JPanel balancePanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        // Tickets label and redeem button
+        ticketsLabel = new JLabel("Tickets: " + TicketLedger.get().cachedBalance(card));
+        ticketsLabel.setFont(new Font(Font.MONOSPACED, Font.BOLD, 22));
+        ticketsLabel.setForeground(Color.YELLOW);
+        refreshTickets();
+
+        JButton redeemBtn = new JButton("REDEEM");
+        redeemBtn.setFont(new Font(Font.MONOSPACED, Font.BOLD, 16));
+        redeemBtn.setBackground(BUTTON_DEFAULT_COLOR);
+        redeemBtn.setForeground(Color.BLACK);
+        redeemBtn.setFocusPainted(false);
+        redeemBtn.addActionListener(e -> {
+            playSound("click");
+            redeemTickets();
+        });
+
+        // Time play label and button
+        timeLabel = new JLabel();
+        timeLabel.setFont(new Font(Font.MONOSPACED, Font.BOLD, 22));
+        timeLabel.setForeground(Color.CYAN);
+        refreshTimePlay();
+        installTimeAlerts();
+
+        JButton timeBtn = new JButton("TIME PLAY");
+        timeBtn.setFont(new Font(Font.MONOSPACED, Font.BOLD, 16));
+        timeBtn.setBackground(BUTTON_DEFAULT_COLOR);
+        timeBtn.setForeground(Color.BLACK);
+        timeBtn.setFocusPainted(false);
+        timeBtn.addActionListener(e -> {
+            playSound("click");
+            buyTimePlay();
+        });
+
+        JPanel balancePanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 16, 5));
         balancePanel.setOpaque(false);
+        balancePanel.add(timeLabel);
+        balancePanel.add(timeBtn);
+        balancePanel.add(ticketsLabel);
+        balancePanel.add(redeemBtn);
         balancePanel.add(balanceLabel);
 
         bottomPanel.add(balancePanel, BorderLayout.SOUTH);
@@ -136,20 +173,156 @@ public class Dashboard extends JFrame {
         setVisible(true);
     }
 
-    public void updateBalance(double newBalance) {
-        this.balance = newBalance;
-        balanceLabel.setText("Balance: ₱" + String.format("%.2f", balance));
+    /** Shows the card's current balance, tickets and time play (after a game changed them). */
+    public void refreshBalance() {
+        // read behind the transactions already submitted, so a spin still settling is counted
+        Wallet.submit(() -> Wallet.get().balance(card)).thenAccept(centavos ->
+                SwingUtilities.invokeLater(() -> balanceLabel.setText("Balance: " + Wallet.format(centavos))));
+        refreshTickets();
+        refreshTimePlay();
+    }
+
+    // shows when the pass ends rather than a countdown, so nothing has to tick
+    private void refreshTimePlay() {
+        long left = TimeSessions.get().millisLeft(card);
+        if (left <= 0) {
+            timeLabel.setText("");
+        } else {
+            Date end = new Date(System.currentTimeMillis() + left);
+            timeLabel.setText("Time play until " + DateFormat.getTimeInstance(DateFormat.SHORT).format(end));
+        }
+    }
+
+    // a second click queued behind the pass dialog finds the purchase claimed and does nothing
+    private void buyTimePlay() {
+        if (!buyingTime.compareAndSet(false, true)) return;
+        int[][] passes = TimeSessions.PASSES;
+        String[] options = new String[passes.length];
+        for (int i = 0; i < passes.length; i++) {
+            options[i] = passes[i][0] + " min - ₱" + passes[i][1];
+        }
+        String message = TimeSessions.get().isActive(card)
+                ? "Add time to your pass (" + TimeSessions.formatLeft(TimeSessions.get().millisLeft(card)) + " left):"
+                : "Unlimited games for:";
+        int choice = JOptionPane.showOptionDialog(this, message, "Time Play", JOptionPane.DEFAULT_OPTION,
+                JOptionPane.PLAIN_MESSAGE, null, options, options[0]);
+        if (choice < 0) {
+            buyingTime.set(false);
+            return;
+        }
+
+        int minutes = passes[choice][0];
+        long price = Wallet.centavos(passes[choice][1]);
+        Wallet.submit(() -> Wallet.get().debit(card, price)).whenComplete((paid, error) -> SwingUtilities.invokeLater(() -> {
+            buyingTime.set(false);
+            if (error != null) {
+                paymentFailed(error);
+            } else if (!paid) {
+                playSound("error");
+                JOptionPane.showMessageDialog(this, "Insufficient balance! Please load your card first.", "Error", JOptionPane.ERROR_MESSAGE);
+            } else {
+                TimeSessions.get().start(card, minutes);
+                playSound("coin");
+                refreshBalance();
+            }
+        }));
+    }
+
+    // the wallet journal failed, so nothing was charged and nothing more can be
+    private void paymentFailed(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        System.err.println("Card payment failed: " + cause.getMessage());
+        playSound("error");
+        JOptionPane.showMessageDialog(this, "Card payments are unavailable right now.\nNothing was charged. Please ask the staff for help.",
+                "Error", JOptionPane.ERROR_MESSAGE);
+    }
+
+    // one listener for the process; it finds the card's dashboards when something happens
+    private static void installTimeAlerts() {
+        if (!timeAlertsInstalled.compareAndSet(false, true)) return;
+        TimeSessions.get().addListener(new TimeSessions.Listener() {
+            @Override
+            public void warning(long card, long millisLeft) {
+                SwingUtilities.invokeLater(() -> timeAlert(card,
+                        "Only " + TimeSessions.formatLeft(millisLeft) + " left on your time play!"));
+            }
+
+            @Override
+            public void expired(long card) {
+                SwingUtilities.invokeLater(() -> timeAlert(card,
+                        "Your time play has ended. Games are charged per play again."));
+            }
+        });
+    }
+
+    // non-modal, so a game in progress keeps running under it
+    private static void timeAlert(long card, String text) {
+        Dashboard owner = null;
+        for (Frame frame : Frame.getFrames()) {
+            if (frame instanceof Dashboard && ((Dashboard) frame).card == card && frame.isDisplayable()) {
+                owner = (Dashboard) frame;
+                owner.refreshTimePlay();
+            }
+        }
+        if (owner == null) return; // not this station's card
+        AudioEngine.play("error");
+        JDialog alert = new JOptionPane(text, JOptionPane.INFORMATION_MESSAGE).createDialog(null, "⏱ Time Play");
+        alert.setModal(false);
+        alert.setAlwaysOnTop(true);
+        alert.setVisible(true);
+    }
+
+    // the ledger answers on its own thread once earlier awards are applied
+    private void refreshTickets() {
+        TicketLedger.get().balance(card).whenComplete((tickets, error) -> SwingUtilities.invokeLater(() ->
+                ticketsLabel.setText(error == null ? "Tickets: " + tickets : "Tickets: unavailable")));
+    }
+
+    private void redeemTickets() {
+        long available = TicketLedger.get().cachedBalance(card);
+        String typed = JOptionPane.showInputDialog(this,
+                "You have " + available + " tickets.\nHow many do you want to redeem?",
+                "Redeem Tickets", JOptionPane.PLAIN_MESSAGE);
+        if (typed == null) return;
+        long tickets;
+        try {
+            tickets = Long.parseLong(typed.trim());
+        } catch (NumberFormatException ex) {
+            tickets = 0;
+        }
+        if (tickets <= 0) {
+            playSound("error");
+            JOptionPane.showMessageDialog(this, "Please enter a number of tickets.", "Redeem Tickets", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        long asked = tickets;
+        TicketLedger.get().redeem(card, asked).whenComplete((left, error) -> SwingUtilities.invokeLater(() -> {
+            if (error != null) {
+                playSound("error");
+                JOptionPane.showMessageDialog(this, "Tickets can't be redeemed right now.\nNothing was taken. Please ask the staff for help.",
+                        "Redeem Tickets", JOptionPane.ERROR_MESSAGE);
+            } else if (left < 0) {
+                playSound("error");
+                JOptionPane.showMessageDialog(this, "Not enough tickets!", "Redeem Tickets", JOptionPane.ERROR_MESSAGE);
+            } else {
+                playSound("coin");
+                JOptionPane.showMessageDialog(this, "Redeemed " + asked + " tickets! " + left + " left.",
+                        "Redeem Tickets", JOptionPane.INFORMATION_MESSAGE);
+            }
+            refreshTickets();
+        }));
     }
     
     public void setGameOpen(boolean status) {
-        this.gameOpen = status;
+        gameOpen.set(status);
     }
     
-    private void showClaimTicketsReminder(JFrame parent, int tickets) {
-        JDialog reminderDialog = new JDialog(parent, "🎟️ Ticket Reminder!", true);
+    /** The end-of-game reminder, with the tickets won this game and the card's total. */
+    void showClaimTicketsReminder(int tickets) {
+        JDialog reminderDialog = new JDialog(this, "🎟️ Ticket Reminder!", true);
         reminderDialog.setSize(350, 300);
         reminderDialog.setResizable(false);
-        reminderDialog.setLocationRelativeTo(parent); 
+        reminderDialog.setLocationRelativeTo(this); 
         reminderDialog.setUndecorated(true);
 
         JPanel mainPanel = new JPanel() {
@@ -167,7 +340,7 @@ public class Dashboard extends JFrame {
         mainPanel.setLayout(new BorderLayout());
         mainPanel.setBorder(BorderFactory.createLineBorder(Color.YELLOW, 4, true));
 
-        ImageIcon logoIcon = new ImageIcon("src/images/timezone.png");
+        ImageIcon logoIcon = AssetCache.icon("src/images/timezone.png");
         JLabel logoLabel = new JLabel(logoIcon);
         logoLabel.setHorizontalAlignment(SwingConstants.CENTER);
         logoLabel.setPreferredSize(new Dimension(350, 150));
@@ -180,6 +353,9 @@ public class Dashboard extends JFrame {
         message.setForeground(Color.WHITE);
         message.setHorizontalAlignment(SwingConstants.CENTER);
         mainPanel.add(message, BorderLayout.CENTER);
+        TicketLedger.get().balance(card).thenAccept(total -> SwingUtilities.invokeLater(() -> message.setText(
+                "<html><center>🎉 Don't forget to claim your " + tickets + " tickets! 🎉<br>Card total: "
+                + total + "</center></html>")));
 
         JButton okBtn = new JButton("CONTINUE");
         okBtn.setFont(new Font("Monospaced", Font.BOLD, 14));
@@ -369,30 +545,51 @@ public class Dashboard extends JFrame {
     // Launch game logic
     // ===============================
 
-    private boolean launchGame(String gameName, int cost) {
-        if (gameOpen) return false; // prevent multiple opens
+    private void launchGame(String gameName, int cost) {
+        // claim the station first: a second tap fails here, before any dialog or debit
+        if (!gameOpen.compareAndSet(false, true)) return;
 
-        if (!confirmGameStart(gameName, cost)) return false;
-
-        if (balance < cost) {
-            playSound("error");
-            JOptionPane.showMessageDialog(this, "Insufficient balance! Please load your card first to play this game!", "Error", JOptionPane.ERROR_MESSAGE);
-            return false;
+        // a running time-play pass covers the game: no confirmation, no charge
+        if (TimeSessions.get().isActive(card)) {
+            openGame(gameName);
+            return;
+        }
+        if (!confirmGameStart(gameName, cost)) {
+            gameOpen.set(false);
+            return;
         }
 
-        balance -= cost;
-        balanceLabel.setText("Balance: ₱" + String.format("%.2f", balance));
+        // check and debit in one step on the wallet's thread; the game opens
+        // once the debit is journaled, and gameOpen keeps other taps out meanwhile
+        long price = Wallet.centavos(cost);
+        Wallet.submit(() -> Wallet.get().debit(card, price)).whenComplete((paid, error) -> SwingUtilities.invokeLater(() -> {
+            if (error != null) {
+                gameOpen.set(false);
+                paymentFailed(error);
+            } else if (!paid) {
+                gameOpen.set(false);
+                playSound("error");
+                JOptionPane.showMessageDialog(this, "Insufficient balance! Please load your card first to play this game!", "Error", JOptionPane.ERROR_MESSAGE);
+            } else {
+                openGame(gameName);
+            }
+        }));
+    }
+
+    private void openGame(String gameName) {
+        refreshBalance();
         playSound("start");
 
-        gameOpen = true;   // mark as open
         this.setVisible(false);
 
         JFrame gameWindow = null;
 
         if ("Memory Game".equalsIgnoreCase(gameName)) {
-            gameWindow = new MatchingCardGame(balance);
+            gameWindow = new MatchingCardGame(card);
+        } else if ("Hangman".equalsIgnoreCase(gameName)) {
+            gameWindow = new Hangman(this, card);
         } else if ("Spin & Win".equalsIgnoreCase(gameName)) {
-            gameWindow = new SpinandWin(this, balance);
+            gameWindow = new SpinandWin(this, card);
         }
 
         if (gameWindow != null) {
@@ -405,13 +602,12 @@ public class Dashboard extends JFrame {
 //                }
 //            });
             SwingUtilities.invokeLater(() -> finalGameWindow.setVisible(true));
-            return true;
+            return;
         }
 
         // For other games (placeholder)
         JOptionPane.showMessageDialog(this, "Launching " + gameName + "!", "Game Start", JOptionPane.INFORMATION_MESSAGE);
-        gameOpen = false;
-        return true;
+        gameOpen.set(false);
     }
 
 
@@ -421,54 +617,28 @@ public class Dashboard extends JFrame {
     // Play sound
     // ===============================
     private void playSound(String key) {
-        String path = sounds.get(key);
-        if (path == null) return;
-        new Thread(() -> {
-            try {
-                File f = new File(path);
-                if (!f.exists()) return;
-                AudioInputStream ais = AudioSystem.getAudioInputStream(f);
-                Clip clip = AudioSystem.getClip();
-                clip.open(ais);
-                clip.start();
-            } catch (Exception ex) {}
-        }).start();
+        // sounds are pre-decoded and mixed on AudioEngine's single thread
+        AudioEngine.play(key);
     }
 
     // ------------------------------
     // Background and GIF panels
     // ------------------------------
-    static class BackgroundPanel extends JPanel {
-        private ImageIcon backgroundImageIcon;
+    static class BackgroundPanel extends ScaledImagePanel {
 
         public BackgroundPanel(String gifPath) {
-            try { backgroundImageIcon = new ImageIcon(gifPath); } catch (Exception e) { backgroundImageIcon = null; setBackground(Color.BLACK); }
+            super(gifPath);
             setLayout(new BorderLayout());
         }
-
-        @Override
-        protected void paintComponent(Graphics g) {
-            super.paintComponent(g);
-            if (backgroundImageIcon != null)
-                g.drawImage(backgroundImageIcon.getImage(), 0, 0, getWidth(), getHeight(), this);
-        }
     }
 
-    static class ScaledGifPanel extends JPanel {
-        private ImageIcon gifIcon;
+    static class ScaledGifPanel extends ScaledImagePanel {
 
         public ScaledGifPanel(String gifPath) {
-            try { gifIcon = new ImageIcon(gifPath); } catch (Exception e) { gifIcon = null; }
+            super(gifPath);
             setPreferredSize(new Dimension(350, 350));
             setOpaque(false);
         }
-
-        @Override
-        protected void paintComponent(Graphics g) {
-            super.paintComponent(g);
-            if (gifIcon != null)
-                g.drawImage(gifIcon.getImage(), 0, 0, getWidth(), getHeight(), this);
-        }
     }
 
     
@@ -494,7 +664,7 @@ public class Dashboard extends JFrame {
         mainPanel.setLayout(new BorderLayout());
         mainPanel.setBorder(BorderFactory.createLineBorder(Color.YELLOW, 4, true));
 
-        ImageIcon logoIcon = new ImageIcon("src/images/timezone.png");
+        ImageIcon logoIcon = AssetCache.icon("src/images/timezone.png");
         JLabel logoLabel = new JLabel(logoIcon);
         logoLabel.setHorizontalAlignment(SwingConstants.CENTER);
         logoLabel.setPreferredSize(new Dimension(350, 150));
@@ -541,6 +711,6 @@ public class Dashboard extends JFrame {
     // Main
     // ===============================
     public static void main(String[] args) {
-        SwingUtilities.invokeLater(() -> new Dashboard(250.00));
+        SwingUtilities.invokeLater(() -> new Dashboard(Wallet.DEFAULT_CARD));
     }
 }
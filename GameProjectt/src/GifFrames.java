@@ -0,0 +1,366 @@
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+import javax.swing.SwingUtilities;
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * GifFrames.java
+ * - Decodes every frame of an animated GIF exactly once, already scaled to
+ *   the size it is displayed at, together with each frame's delay
+ * - Frames are kept in a shared LRU cache keyed by (asset, width, height)
+ *   under a byte budget ("arcade.gifCacheBytes", default 160 MB)
+ * - Very large animations are stored at a reduced resolution so a single
+ *   background cannot take more than a quarter of the budget
+ * - Frames come from the memory-mapped AssetPack when it has them; otherwise
+ *   the GIF is decoded, always on a background thread (callers get null until done)
+ * - At most one decode per GIF is in flight; sizes asked for meanwhile (a
+ *   window being resized) collapse into the latest one, decoded next. A GIF
+ *   that fails to decode is remembered and not tried again
+ */
+public final class GifFrames {
+
+    private static final long BUDGET_BYTES = Long.getLong("arcade.gifCacheBytes", 160L * 1024 * 1024);
+    static final long MAX_BYTES_PER_ANIMATION = BUDGET_BYTES / 4;
+    private static final int DEFAULT_DELAY_MS = 100;
+    private static final double SIZE_TOLERANCE = 0.10;
+
+    private static final Map<String, GifFrames> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private static final Map<String, Decode> decoding = new HashMap<>(); // path -> decode in flight
+    private static final Set<String> failed = new HashSet<>();            // paths that did not decode
+    private static long usedBytes = 0;
+
+    // one GIF's decode in flight, and the latest other size wanted meanwhile
+    private static final class Decode {
+        int w, h;
+        int nextW = -1, nextH = -1;
+        final List<Runnable> callbacks = new ArrayList<>();
+
+        Decode(int w, int h) {
+            this.w = w;
+            this.h = h;
+        }
+    }
+
+    private static final ExecutorService decoder = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "gif-decoder");
+        t.setDaemon(true);
+        t.setPriority(Thread.NORM_PRIORITY - 1);
+        return t;
+    });
+
+    private final BufferedImage[] frames;
+    private final int[] delays;
+    private final int totalMillis;
+    private final long bytes;
+
+    private GifFrames(BufferedImage[] frames, int[] delays) {
+        this.frames = frames;
+        this.delays = delays;
+        int total = 0;
+        long size = 0;
+        for (int i = 0; i < frames.length; i++) {
+            total += delays[i];
+            size += (long) frames[i].getWidth() * frames[i].getHeight() * 4;
+        }
+        this.totalMillis = total;
+        this.bytes = size;
+    }
+
+    static GifFrames of(BufferedImage[] frames, int[] delays) {
+        return new GifFrames(frames, delays);
+    }
+
+    public int frameCount() {
+        return frames.length;
+    }
+
+    public BufferedImage frame(int index) {
+        return frames[index];
+    }
+
+    public int delay(int index) {
+        return delays[index];
+    }
+
+    public int totalMillis() {
+        return totalMillis;
+    }
+
+    // ===============================
+    // Cache
+    // ===============================
+
+    /**
+     * Returns the frames of the GIF scaled to w x h (or a cached size within a
+     * few percent of it), or null if they are still being decoded or the GIF
+     * cannot be decoded. While decoding, onReady (pass the same instance on
+     * every call) is run on the EDT once frames for the latest size exist.
+     */
+    public static GifFrames request(String path, int w, int h, Runnable onReady) {
+        synchronized (GifFrames.class) {
+            GifFrames frames = cache.get(key(path, w, h));
+            if (frames == null) frames = nearestCached(path, w, h);
+            if (frames != null) return frames;
+            if (failed.contains(path)) return null;
+
+            Decode d = decoding.get(path);
+            if (d == null) {
+                d = new Decode(w, h);
+                decoding.put(path, d);
+                Decode started = d;
+                decoder.execute(() -> decodeLatest(path, started));
+            } else if (d.w != w || d.h != h) {
+                d.nextW = w; // replaces any size asked for earlier in this decode
+                d.nextH = h;
+            } else {
+                d.nextW = d.nextH = -1; // back to the size being decoded
+            }
+            if (onReady != null && !d.callbacks.contains(onReady)) d.callbacks.add(onReady);
+            return null;
+        }
+    }
+
+    // decoder thread: decodes d's size, then the latest size asked for meanwhile
+    private static void decodeLatest(String path, Decode d) {
+        while (true) {
+            int w, h;
+            synchronized (GifFrames.class) {
+                w = d.w;
+                h = d.h;
+            }
+            GifFrames decoded = load(path, w, h);
+            List<Runnable> callbacks;
+            synchronized (GifFrames.class) {
+                if (decoded == null) {
+                    failed.add(path);
+                } else {
+                    install(key(path, w, h), decoded);
+                    if (d.nextW > 0 && cache.get(key(path, d.nextW, d.nextH)) == null
+                            && nearestCached(path, d.nextW, d.nextH) == null) {
+                        d.w = d.nextW;
+                        d.h = d.nextH;
+                        d.nextW = d.nextH = -1;
+                        continue; // callers are told once the latest size is in
+                    }
+                }
+                decoding.remove(path);
+                callbacks = new ArrayList<>(d.callbacks);
+            }
+            // told on failure too: they stop waiting and paint without the GIF
+            for (Runnable r : callbacks) SwingUtilities.invokeLater(r);
+            return;
+        }
+    }
+
+    /**
+     * Decodes the frames for w x h on the calling thread, unless they are
+     * already cached or being decoded. Used by the startup preloader.
+     */
+    public static void preload(String path, int w, int h) {
+        String key = key(path, w, h);
+        synchronized (GifFrames.class) {
+            if (cache.containsKey(key) || decoding.containsKey(path) || failed.contains(path)) return;
+        }
+        GifFrames decoded = load(path, w, h);
+        synchronized (GifFrames.class) {
+            if (decoded == null) failed.add(path);
+            else if (!cache.containsKey(key)) install(key, decoded);
+        }
+    }
+
+    private static String key(String path, int w, int h) {
+        return path + "@" + w + "x" + h;
+    }
+
+    private static GifFrames load(String path, int w, int h) {
+        GifFrames frames = AssetPack.frames(path, w, h);
+        return frames != null ? frames : decode(path, w, h);
+    }
+
+    private static void install(String key, GifFrames frames) {
+        cache.put(key, frames);
+        usedBytes += frames.bytes;
+        evictOverBudget(key);
+    }
+
+    // a preloaded size that is close enough saves a second decode after layout
+    private static GifFrames nearestCached(String path, int w, int h) {
+        String prefix = path + "@";
+        for (Map.Entry<String, GifFrames> e : cache.entrySet()) {
+            String key = e.getKey();
+            if (!key.startsWith(prefix)) continue;
+            String[] size = key.substring(prefix.length()).split("x");
+            int cw = Integer.parseInt(size[0]), ch = Integer.parseInt(size[1]);
+            if (Math.abs(cw - w) <= w * SIZE_TOLERANCE && Math.abs(ch - h) <= h * SIZE_TOLERANCE) {
+                return e.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static void evictOverBudget(String keep) {
+        Iterator<Map.Entry<String, GifFrames>> it = cache.entrySet().iterator();
+        while (usedBytes > BUDGET_BYTES && it.hasNext()) {
+            Map.Entry<String, GifFrames> eldest = it.next();
+            if (eldest.getKey().equals(keep)) continue;
+            usedBytes -= eldest.getValue().bytes;
+            it.remove();
+        }
+    }
+
+    public static synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    // ===============================
+    // Decoding
+    // ===============================
+
+    /**
+     * Decodes and composites every frame, scaling each one straight to the
+     * storage size so the full-resolution frames never pile up in memory.
+     * Returns null when the file is missing or unreadable.
+     */
+    static GifFrames decode(String path, int w, int h) {
+        return decode(path, w, h, MAX_BYTES_PER_ANIMATION);
+    }
+
+    static GifFrames decode(String path, int w, int h, long maxBytes) {
+        URL url = AssetCache.locate(path);
+        if (url == null) return null;
+
+        ImageReader reader = ImageIO.getImageReadersByFormatName("gif").next();
+        try (InputStream raw = url.openStream();
+             ImageInputStream in = ImageIO.createImageInputStream(raw)) {
+            reader.setInput(in, false);
+
+            int canvasW = reader.getWidth(0);
+            int canvasH = reader.getHeight(0);
+            IIOMetadataNode screen = child(reader.getStreamMetadata() == null ? null
+                    : (IIOMetadataNode) reader.getStreamMetadata().getAsTree("javax_imageio_gif_stream_1.0"),
+                    "LogicalScreenDescriptor");
+            if (screen != null) {
+                canvasW = Math.max(canvasW, intAttr(screen, "logicalScreenWidth", canvasW));
+                canvasH = Math.max(canvasH, intAttr(screen, "logicalScreenHeight", canvasH));
+            }
+
+            BufferedImage canvas = new BufferedImage(canvasW, canvasH, BufferedImage.TYPE_INT_ARGB);
+            List<BufferedImage> frames = new ArrayList<>();
+            List<Integer> delays = new ArrayList<>();
+            int storeW = w, storeH = h;
+
+            for (int i = 0; ; i++) {
+                BufferedImage image;
+                IIOMetadataNode meta;
+                try {
+                    image = reader.read(i);
+                    meta = (IIOMetadataNode) reader.getImageMetadata(i).getAsTree("javax_imageio_gif_image_1.0");
+                } catch (IndexOutOfBoundsException end) {
+                    break;
+                } catch (Exception broken) {
+                    break; // keep whatever frames decoded cleanly
+                }
+
+                if (i == 0) {
+                    // size the storage once we know how many frames to expect
+                    int count = Math.max(1, reader.getNumImages(true));
+                    long full = (long) w * h * 4 * count;
+                    if (full > maxBytes) {
+                        double s = Math.sqrt((double) maxBytes / full);
+                        storeW = Math.max(1, (int) (w * s));
+                        storeH = Math.max(1, (int) (h * s));
+                    }
+                }
+
+                IIOMetadataNode desc = child(meta, "ImageDescriptor");
+                IIOMetadataNode control = child(meta, "GraphicControlExtension");
+                int x = intAttr(desc, "imageLeftPosition", 0);
+                int y = intAttr(desc, "imageTopPosition", 0);
+                String disposal = control == null ? "none" : control.getAttribute("disposalMethod");
+                int delay = intAttr(control, "delayTime", 0) * 10;
+                if (delay <= 10) delay = DEFAULT_DELAY_MS; // same rule browsers use
+
+                BufferedImage previous = null;
+                if ("restoreToPrevious".equals(disposal)) {
+                    previous = copy(canvas);
+                }
+
+                Graphics2D g = canvas.createGraphics();
+                g.drawImage(image, x, y, null);
+                g.dispose();
+
+                frames.add(scale(canvas, storeW, storeH));
+                delays.add(delay);
+
+                if ("restoreToBackgroundColor".equals(disposal)) {
+                    Graphics2D clear = canvas.createGraphics();
+                    clear.setComposite(AlphaComposite.Clear);
+                    clear.fillRect(x, y, image.getWidth(), image.getHeight());
+                    clear.dispose();
+                } else if (previous != null) {
+                    canvas = previous;
+                }
+            }
+
+            if (frames.isEmpty()) return null;
+            int[] d = new int[delays.size()];
+            for (int i = 0; i < d.length; i++) d[i] = delays.get(i);
+            return new GifFrames(frames.toArray(new BufferedImage[0]), d);
+        } catch (Exception e) {
+            return null;
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage src, int w, int h) {
+        BufferedImage out = ScaledImageCache.createCompatibleImage(w, h);
+        Graphics2D g = out.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(src, 0, 0, w, h, null);
+        g.dispose();
+        return out;
+    }
+
+    private static BufferedImage copy(BufferedImage src) {
+        BufferedImage out = new BufferedImage(src.getWidth(), src.getHeight(), src.getType());
+        src.copyData(out.getRaster());
+        return out;
+    }
+
+    private static IIOMetadataNode child(IIOMetadataNode parent, String name) {
+        if (parent == null) return null;
+        for (int i = 0; i < parent.getLength(); i++) {
+            if (parent.item(i).getNodeName().equals(name)) return (IIOMetadataNode) parent.item(i);
+        }
+        return null;
+    }
+
+    private static int intAttr(IIOMetadataNode node, String name, int fallback) {
+        if (node == null || !node.hasAttribute(name)) return fallback;
+        try {
+            return Integer.parseInt(node.getAttribute(name));
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+}
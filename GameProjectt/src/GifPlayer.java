@@ -0,0 +1,103 @@
+import javax.swing.JComponent;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.event.HierarchyEvent;
+import java.awt.image.BufferedImage;
+
+/**
+ * GifPlayer.java
+ * - Plays an animated GIF inside a component from frames decoded once by GifFrames
+ * - Advanced by the shared AnimationClock, so frame rate is capped globally
+ * - Only repaints the owner when the visible frame actually changes
+ * - Pauses automatically while the owner is not showing (e.g. the Dashboard
+ *   hidden behind a running game) and resumes where it left off
+ */
+public final class GifPlayer implements AnimationClock.Listener {
+
+    private final String path;
+    private final JComponent owner;
+    private final Runnable repaint; // one instance, so GifFrames keeps one callback per player
+
+    private GifFrames frames;
+    private int framesW = -1, framesH = -1;
+    private int index = 0;
+    private long frameStart = 0;
+    private boolean ticking = false;
+
+    public GifPlayer(String path, JComponent owner) {
+        this.path = path;
+        this.owner = owner;
+        this.repaint = owner::repaint;
+        owner.addHierarchyListener(e -> {
+            if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0) {
+                updateTicking();
+            }
+        });
+    }
+
+    /**
+     * Draws the current frame stretched over w x h. Frames for a new size are
+     * decoded in the background; nothing is drawn until they are ready.
+     */
+    public void paint(Graphics g, int w, int h) {
+        if (w <= 0 || h <= 0) return;
+        if (frames == null || w != framesW || h != framesH) {
+            GifFrames ready = GifFrames.request(path, w, h, repaint);
+            if (ready == null) {
+                if (frames == null) return;
+            } else {
+                frames = ready;
+                framesW = w;
+                framesH = h;
+                if (index >= frames.frameCount()) index = 0;
+                updateTicking();
+            }
+        }
+
+        BufferedImage img = frames.frame(index);
+        if (img.getWidth() == w && img.getHeight() == h) {
+            g.drawImage(img, 0, 0, null);
+        } else {
+            // oversized animation stored at reduced resolution, or a resize in progress
+            Graphics2D g2 = (Graphics2D) g;
+            g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g2.drawImage(img, 0, 0, w, h, null);
+        }
+    }
+
+    @Override
+    public void tick(long now) {
+        if (frames == null) return;
+        if (frameStart == 0) {
+            frameStart = now;
+            return;
+        }
+
+        int next = index;
+        long elapsed = now - frameStart;
+        // skip frames we were too slow (or capped too low) to show
+        elapsed %= frames.totalMillis();
+        while (elapsed >= frames.delay(next)) {
+            elapsed -= frames.delay(next);
+            next = (next + 1) % frames.frameCount();
+        }
+        if (next != index) {
+            index = next;
+            frameStart = now - elapsed;
+            owner.repaint();
+        }
+    }
+
+    private void updateTicking() {
+        boolean shouldTick = owner.isShowing() && frames != null && frames.frameCount() > 1;
+        if (shouldTick == ticking) return;
+        ticking = shouldTick;
+        if (ticking) {
+            frameStart = 0;
+            AnimationClock.add(this);
+        } else {
+            AnimationClock.remove(this);
+        }
+    }
+}
@@ -3,7 +3,8 @@
 import java.awt.*;
 import java.awt.event.ActionListener;
 import java.util.ArrayList;
-import java.util.Random;
+import java.util.Arrays;
+import java.util.SplittableRandom;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.LineBorder;
@@ -30,16 +31,22 @@ public class Hangman extends JFrame {
     
     private String secretWord = "TONI"; 
     private String currentHint = "THE MAIN VLOGGER";
+    private String currentTopic = "TORO FAMILY";
+    private final SplittableRandom random = new SplittableRandom();
     
-    private int mistakes = 0;
-    private final int MAX_MISTAKES = 6;
+    static final int MAX_MISTAKES = 6;
     private int score = 0;
+    private int ticketsEarned = 0; // this visit, for the reminder
+    private boolean entryPlayed = false; // the paid entry's round is over; replays earn nothing
+    private final Dashboard dashboard; // reopened on close; null when run on its own
+    private final long card;
     private final int HINT_COST = 10;
     private boolean hintUnlocked = false;
     
-    private ArrayList<String> guessedLetters = new ArrayList<>();
+    private final HangmanState state = new HangmanState(MAX_MISTAKES);
     private ArrayList<JButton> allButtons = new ArrayList<>();
     private JLabel lblWordDisplay;
+    private JLabel lblTopic;
     private JLabel lblStatus; 
     private JPanel keyboardPanel;
     private DrawingPanel gamePanel;
@@ -62,8 +69,25 @@ public class Hangman extends JFrame {
     }
 
     public Hangman() {
+        this(null, Wallet.DEFAULT_CARD);
+    }
+
+    public Hangman(Dashboard dashboard, long card) {
+        this.dashboard = dashboard;
+        this.card = card;
         setTitle("ARCADE HANGMAN");
-        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setDefaultCloseOperation(dashboard == null ? JFrame.EXIT_ON_CLOSE : JFrame.DISPOSE_ON_CLOSE);
+        if (dashboard != null) {
+            addWindowListener(new java.awt.event.WindowAdapter() {
+                @Override
+                public void windowClosed(java.awt.event.WindowEvent e) {
+                    dashboard.refreshBalance();
+                    dashboard.setGameOpen(false);
+                    dashboard.setVisible(true);
+                    dashboard.showClaimTicketsReminder(ticketsEarned);
+                }
+            });
+        }
         setBounds(100, 100, 1000, 800);
         setLocationRelativeTo(null);
 
@@ -106,6 +130,20 @@ public class Hangman extends JFrame {
         });
         actionPanel.add(btnHint);
 
+        JButton btnSmartHint = new JButton("SMART HINT (10pts)");
+        styleSolidButton(btnSmartHint, SOFT_BLUE);
+        btnSmartHint.addActionListener(e -> {
+            if (state.isOver()) return;
+            if (score >= HINT_COST) {
+                score -= HINT_COST;
+                updateStatusLabel();
+                showSmartHint();
+            } else {
+                JOptionPane.showMessageDialog(this, "NOT ENOUGH POINTS!\nCorrect guesses earn 10 points.");
+            }
+        });
+        actionPanel.add(btnSmartHint);
+
         JButton btnReset = new JButton("NEW GAME");
         styleSolidButton(btnReset, NEON_PINK); 
         btnReset.addActionListener(e -> {
@@ -121,7 +159,7 @@ public class Hangman extends JFrame {
         JPanel centerPanel = new JPanel(new BorderLayout(10, 10));
         centerPanel.setBackground(BG_COLOR);
 
-        JLabel lblTopic = new JLabel("TOPIC: TORO FAMILY");
+        lblTopic = new JLabel("TOPIC: " + currentTopic);
         lblTopic.setHorizontalAlignment(SwingConstants.CENTER);
         lblTopic.setFont(new Font("SansSerif", Font.BOLD | Font.ITALIC, 32)); 
         lblTopic.setForeground(TEXT_WHITE);
@@ -216,6 +254,7 @@ public class Hangman extends JFrame {
         allButtons.add(btnY); allButtons.add(btnZ);
 
         if (!java.beans.Beans.isDesignTime()) {
+            WordDictionary.start(); // no-op when ArcadeApp already started it
             startNewGame();
         }
     }
@@ -240,16 +279,24 @@ public class Hangman extends JFrame {
     }
 
     private void startNewGame() {
-        Random rand = new Random();
-        int index = rand.nextInt(wordData.length);
-        
-        secretWord = wordData[index][0]; 
-        currentHint = wordData[index][1]; 
+        // the dictionary loads in the background; until then play the built-in words
+        WordDictionary dictionary = WordDictionary.current();
+        int id = dictionary == null ? -1 : dictionary.pick(random, null, 0);
+        if (id >= 0) {
+            secretWord = dictionary.word(id);
+            currentHint = dictionary.hint(id);
+            currentTopic = dictionary.category(id);
+        } else {
+            int index = random.nextInt(wordData.length);
+            secretWord = wordData[index][0]; 
+            currentHint = wordData[index][1]; 
+            currentTopic = "TORO FAMILY";
+        }
+        lblTopic.setText("TOPIC: " + currentTopic);
         
-        mistakes = 0;
         score = 0; 
         hintUnlocked = false; 
-        guessedLetters.clear();
+        state.reset(secretWord);
         
         updateStatusLabel();
 
@@ -266,28 +313,38 @@ public class Hangman extends JFrame {
     }
 
     private void handleGuess(JButton sourceBtn) {
-        String letter = sourceBtn.getText();
+        int result = state.guess(sourceBtn.getText().charAt(0));
         sourceBtn.setEnabled(false);
-        guessedLetters.add(letter);
+        if (result == HangmanState.IGNORED) return;
 
-        if (secretWord.contains(letter)) {
+        if (result == HangmanState.HIT) {
             sourceBtn.setBorder(new LineBorder(SOFT_BLUE, 2));
             score += 10; 
+            AudioEngine.play("click");
             updateWordDisplay();
             updateStatusLabel();
             checkWin();
         } else {
             sourceBtn.setBackground(new Color(100, 20, 20));
             sourceBtn.setBorder(new LineBorder(Color.RED, 2));
-            mistakes++;
+            AudioEngine.play("error");
             updateStatusLabel();
-            gamePanel.setMistakes(mistakes);
+            gamePanel.setMistakes(state.getMistakes());
             checkLoss();
         }
     }
     
+    // Highlight the letter the solver would guess next (same solver that rates the words)
+    private void showSmartHint() {
+        char letter = new HangmanSolver(WordDictionary.current()).nextGuess(state);
+        if (letter == 0) return;
+        JButton key = allButtons.get(letter - 'A');
+        key.setBorder(new LineBorder(Color.YELLOW, 4));
+        key.requestFocusInWindow();
+    }
+
     private void updateStatusLabel() {
-        lblStatus.setText("LIVES: " + (MAX_MISTAKES - mistakes) + " | SCORE: " + score);
+        lblStatus.setText("LIVES: " + state.getLivesLeft() + " | SCORE: " + score);
     }
 
     private void updateRightPanelDisplay() {
@@ -302,55 +359,139 @@ public class Hangman extends JFrame {
 
     private void updateWordDisplay() {
         if (lblWordDisplay == null) return;
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < secretWord.length(); i++) {
-            String c = String.valueOf(secretWord.charAt(i));
-            if (guessedLetters.contains(c)) {
-                sb.append(c).append(" ");
-            } else {
-                sb.append("_ ");
-            }
-        }
-        lblWordDisplay.setText(sb.toString().trim());
+        lblWordDisplay.setText(state.display());
     }
 
     private void checkWin() {
-        if (!lblWordDisplay.getText().contains("_")) {
-            JOptionPane.showMessageDialog(this, "HIGH SCORE ACHIEVED! YOU WON.");
+        if (state.isWon()) {
+            int tickets = awardTickets(true);
+            JOptionPane.showMessageDialog(this, "HIGH SCORE ACHIEVED! YOU WON.\n" + ticketMessage(tickets));
             startNewGame();
         }
     }
 
     private void checkLoss() {
-        if (mistakes >= MAX_MISTAKES) {
-            JOptionPane.showMessageDialog(this, "GAME OVER");
+        if (state.isLost()) {
+            int tickets = awardTickets(false);
+            JOptionPane.showMessageDialog(this, "GAME OVER\n" + ticketMessage(tickets));
             startNewGame();
         }
     }
 
-    public static class DrawingPanel extends JPanel {
+    // the first round of a paid entry earns tickets, queued to the card's ledger;
+    // later rounds (NEW GAME, the automatic restart) are free, so they return -1
+    private int awardTickets(boolean won) {
+        if (entryPlayed) return -1;
+        entryPlayed = true;
+        int tickets = TicketLedger.hangmanTickets(score, won);
+        TicketLedger.get().award(card, tickets, TicketLedger.HANGMAN);
+        ticketsEarned += tickets;
+        return tickets;
+    }
+
+    private static String ticketMessage(int tickets) {
+        return tickets < 0 ? "FREE ROUND: NO TICKETS" : "TICKETS: +" + tickets;
+    }
+
+    /**
+     * Gallows and figure for 0..MAX_MISTAKES mistakes.
+     * - Each stage is rasterized once per panel size into an image, on first
+     *   use, and painting is a single blit of it
+     * - A change of stage crossfades over FADE_MILLIS, driven by AnimationClock
+     * - Nothing is repainted when the stage does not change
+     */
+    public static class DrawingPanel extends JPanel implements AnimationClock.Listener {
         private static final long serialVersionUID = 1L;
+
+        private static final int STAGES = MAX_MISTAKES + 1;
+        private static final long FADE_MILLIS = 250;
+        private static final Stroke GALLOWS_STROKE = new BasicStroke(5, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER);
+        private static final Stroke BODY_STROKE = new BasicStroke(5);
+        private static final Stroke THIN_STROKE = new BasicStroke(3);
+
         private int currentMistakes = 0;
 
+        // stage images for the current size, rendered on demand
+        private final Image[] stages = new Image[STAGES];
+        private int stageWidth = -1, stageHeight = -1;
+
+        // crossfade from fromStage to currentMistakes
+        private int fromStage = -1;
+        private long fadeStart;
+        private float fade = 1f;
+
+        public DrawingPanel() {
+            setOpaque(true);
+        }
+
         public void setMistakes(int mistakes) {
-            this.currentMistakes = mistakes;
+            int stage = Math.max(0, Math.min(MAX_MISTAKES, mistakes));
+            if (stage == currentMistakes) return;
+            fromStage = currentMistakes;
+            currentMistakes = stage;
+            if (isShowing()) {
+                fadeStart = System.currentTimeMillis();
+                fade = 0f;
+                AnimationClock.add(this);
+            } else {
+                fade = 1f;
+            }
             repaint();
         }
 
+        @Override
+        public void tick(long nowMillis) {
+            fade = Math.min(1f, (nowMillis - fadeStart) / (float) FADE_MILLIS);
+            if (fade >= 1f) AnimationClock.remove(this);
+            repaint();
+        }
+
+        @Override
+        public void removeNotify() {
+            AnimationClock.remove(this);
+            fade = 1f;
+            super.removeNotify();
+        }
+
+        @Override
         protected void paintComponent(Graphics g) {
-            super.paintComponent(g);
-            Graphics2D g2 = (Graphics2D) g;
-            
-            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-            g2.setStroke(new BasicStroke(5, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER));
-            
-            int renderMistakes = currentMistakes;
-            if (java.beans.Beans.isDesignTime()) {
-                renderMistakes = 6; 
+            int w = getWidth(), h = getHeight();
+            if (w <= 0 || h <= 0) return;
+            if (w != stageWidth || h != stageHeight) {
+                Arrays.fill(stages, null); // size changed: re-render stages as they are needed
+                stageWidth = w;
+                stageHeight = h;
+            }
+
+            int stage = java.beans.Beans.isDesignTime() ? MAX_MISTAKES : currentMistakes;
+            if (fade < 1f && fromStage >= 0) {
+                g.drawImage(stage(fromStage), 0, 0, null);
+                Graphics2D g2 = (Graphics2D) g.create();
+                g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, fade));
+                g2.drawImage(stage(stage), 0, 0, null);
+                g2.dispose();
+            } else {
+                g.drawImage(stage(stage), 0, 0, null);
             }
+        }
+
+        private Image stage(int stage) {
+            if (stages[stage] == null) {
+                Image image = createImage(stageWidth, stageHeight);
+                Graphics2D g = (Graphics2D) image.getGraphics();
+                g.setColor(getBackground());
+                g.fillRect(0, 0, stageWidth, stageHeight);
+                drawStage(g, stageWidth, stageHeight, stage);
+                g.dispose();
+                stages[stage] = image;
+            }
+            return stages[stage];
+        }
+
+        private static void drawStage(Graphics2D g2, int w, int h, int mistakes) {
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.setStroke(GALLOWS_STROKE);
 
-            int w = getWidth();
-            int h = getHeight();
             int centerX = w / 2;
             int bottomY = h - 80; 
             
@@ -360,21 +501,21 @@ public class Hangman extends JFrame {
             g2.drawLine(centerX, bottomY - 220, centerX - 80, bottomY - 220); 
             
             g2.setColor(SOFT_BLUE);
-            g2.setStroke(new BasicStroke(3));
+            g2.setStroke(THIN_STROKE);
             g2.drawLine(centerX - 80, bottomY - 220, centerX - 80, bottomY - 180);
             
             g2.setColor(Color.WHITE);
-            g2.setStroke(new BasicStroke(5));
-
-            if (renderMistakes >= 1) g2.drawOval(centerX - 95, bottomY - 180, 30, 30);
-            if (renderMistakes >= 2) g2.drawLine(centerX - 80, bottomY - 150, centerX - 80, bottomY - 90); 
-            if (renderMistakes >= 3) g2.drawLine(centerX - 80, bottomY - 140, centerX - 110, bottomY - 110);
-            if (renderMistakes >= 4) g2.drawLine(centerX - 80, bottomY - 140, centerX - 50, bottomY - 110);  
-            if (renderMistakes >= 5) g2.drawLine(centerX - 80, bottomY - 90, centerX - 110, bottomY - 50);
-            if (renderMistakes >= 6) {
+            g2.setStroke(BODY_STROKE);
+
+            if (mistakes >= 1) g2.drawOval(centerX - 95, bottomY - 180, 30, 30);
+            if (mistakes >= 2) g2.drawLine(centerX - 80, bottomY - 150, centerX - 80, bottomY - 90); 
+            if (mistakes >= 3) g2.drawLine(centerX - 80, bottomY - 140, centerX - 110, bottomY - 110);
+            if (mistakes >= 4) g2.drawLine(centerX - 80, bottomY - 140, centerX - 50, bottomY - 110);  
+            if (mistakes >= 5) g2.drawLine(centerX - 80, bottomY - 90, centerX - 110, bottomY - 50);
+            if (mistakes >= 6) {
                 g2.drawLine(centerX - 80, bottomY - 90, centerX - 50, bottomY - 50);
                 g2.setColor(Color.RED);
-                g2.setStroke(new BasicStroke(3));
+                g2.setStroke(THIN_STROKE);
                 g2.drawLine(centerX - 90, bottomY - 170, centerX - 86, bottomY - 164);
                 g2.drawLine(centerX - 86, bottomY - 170, centerX - 90, bottomY - 164);
                 g2.drawLine(centerX - 74, bottomY - 170, centerX - 70, bottomY - 164);
@@ -0,0 +1,303 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * HangmanSolver.java
+ * - Candidate-elimination Hangman player over a WordDictionary: keep every
+ *   word consistent with the round, guess the unguessed letter that the
+ *   most candidates contain (ties go to the more common English letter)
+ * - nextGuess() is the in-game smart hint: one filter of one length range
+ *   plus 26 counters, well inside a frame
+ * - main() rates the whole dictionary: the guesser is deterministic, so all
+ *   words of one length share their first guess, and the answer splits them
+ *   into groups that share the next one. Rating is a walk of that decision
+ *   tree, split over a ForkJoinPool, instead of one game per word
+ *
+ * Usage: java HangmanSolver [wordList] [threads] [ratedListOut]
+ * Defaults: src/words.tsv, all cores, no output file. The output is the
+ * same TSV with each difficulty replaced by the rated one.
+ */
+public final class HangmanSolver {
+
+    /** Letters from most to least common in English; breaks ties. */
+    static final String FREQUENCY_ORDER = "ETAOINSHRDLCUMWFGYPBVKJXQZ";
+
+    private static final int[] RANK = new int[HangmanState.ALPHABET];
+    static {
+        for (int r = 0; r < FREQUENCY_ORDER.length(); r++) {
+            RANK[FREQUENCY_ORDER.charAt(r) - 'A'] = r;
+        }
+    }
+
+    private static final int FORK_THRESHOLD = 2048;
+
+    private final WordDictionary dictionary;
+
+    public HangmanSolver(WordDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    // ===============================
+    // Smart hint
+    // ===============================
+
+    /**
+     * Best next letter for a round, or 0 if every letter is guessed. With no
+     * dictionary (or a phrase not in it) it falls back to letter frequency.
+     */
+    public char nextGuess(HangmanState state) {
+        int guessed = state.getGuessedMask();
+        if (dictionary != null) {
+            int[] candidates = dictionary.candidates(state);
+            int letter = bestLetter(dictionary, candidates, 0, candidates.length, guessed);
+            if (letter >= 0) return (char) ('A' + letter);
+        }
+        for (int r = 0; r < FREQUENCY_ORDER.length(); r++) {
+            char c = FREQUENCY_ORDER.charAt(r);
+            if ((guessed & (1 << (c - 'A'))) == 0) return c;
+        }
+        return 0;
+    }
+
+    /**
+     * Unguessed letter contained in the most of ids[from..to), or -1 if none
+     * of them has an unguessed letter left.
+     */
+    static int bestLetter(WordDictionary dictionary, int[] ids, int from, int to, int guessed) {
+        int[] counts = new int[HangmanState.ALPHABET];
+        for (int k = from; k < to; k++) {
+            int open = dictionary.mask(ids[k]) & ~guessed;
+            while (open != 0) {
+                counts[Integer.numberOfTrailingZeros(open)]++;
+                open &= open - 1;
+            }
+        }
+        int best = -1;
+        for (int l = 0; l < HangmanState.ALPHABET; l++) {
+            if (counts[l] == 0) continue;
+            if (best < 0 || counts[l] > counts[best] || (counts[l] == counts[best] && RANK[l] < RANK[best])) {
+                best = l;
+            }
+        }
+        return best;
+    }
+
+    // ===============================
+    // Rating the dictionary
+    // ===============================
+
+    /**
+     * Mistakes the solver makes on every word, indexed by word id (capped at
+     * 26, one per letter). Each word is rated as if the round had no limit.
+     */
+    public static byte[] rateAll(WordDictionary dictionary, ForkJoinPool pool) {
+        byte[] ratings = new byte[dictionary.size()];
+        int[] ids = new int[dictionary.size()];
+        for (int i = 0; i < ids.length; i++) ids[i] = i;
+
+        List<Group> lengths = new ArrayList<>();
+        for (int length = 0; length <= dictionary.maxLength(); length++) {
+            int count = dictionary.countOfLength(length);
+            if (count == 0) continue;
+            int from = dictionary.firstOfLength(length);
+            lengths.add(new Group(dictionary, ids, ratings, from, from + count, 0, 0, false));
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(lengths)));
+        return ratings;
+    }
+
+    /**
+     * Words ids[from..to) that look the same to the solver so far (same
+     * length, same letters shown, same misses), so it plays the same next
+     * letter for all of them. A length group is first split by where its
+     * spaces and punctuation are (shaped), since those show from the start.
+     */
+    static final class Group extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final WordDictionary dictionary;
+        private final int[] ids;
+        private final byte[] ratings;
+        private final int from, to;
+        private final int guessed;
+        private final int mistakes;
+        private final boolean shaped;
+
+        Group(WordDictionary dictionary, int[] ids, byte[] ratings, int from, int to, int guessed, int mistakes,
+              boolean shaped) {
+            this.dictionary = dictionary;
+            this.ids = ids;
+            this.ratings = ratings;
+            this.from = from;
+            this.to = to;
+            this.guessed = guessed;
+            this.mistakes = mistakes;
+            this.shaped = shaped;
+        }
+
+        @Override
+        protected void compute() {
+            List<Group> forks = null;
+            // iterative for the small groups, forked for the large ones
+            Group g = this;
+            while (g != null) {
+                Group next = null;
+                List<Group> children = null;
+                if (g.to - g.from == 1) {
+                    // one candidate left: the solver only guesses its letters now
+                    ratings[ids[g.from]] = (byte) g.mistakes;
+                } else {
+                    if (!g.shaped) {
+                        children = g.split(-1);
+                    } else {
+                        int letter = bestLetter(dictionary, ids, g.from, g.to, g.guessed);
+                        if (letter < 0) {
+                            // only duplicates left; all are solved
+                            for (int k = g.from; k < g.to; k++) ratings[ids[k]] = (byte) g.mistakes;
+                        } else {
+                            children = g.split(letter);
+                        }
+                    }
+                }
+                if (children != null) {
+                    for (Group child : children) {
+                        if (child.to - child.from >= FORK_THRESHOLD) {
+                            if (forks == null) forks = new ArrayList<>();
+                            child.fork();
+                            forks.add(child);
+                        } else if (next == null) {
+                            next = child;
+                        } else {
+                            child.compute();
+                        }
+                    }
+                }
+                g = next;
+            }
+            if (forks != null) {
+                for (Group f : forks) f.join();
+            }
+        }
+
+        /**
+         * Partitions ids[from..to) in place by where the letter shows up,
+         * one group per distinct answer; letter -1 splits by shape instead.
+         */
+        private List<Group> split(int letter) {
+            char c = letter < 0 ? 0 : (char) ('A' + letter);
+            int bit = letter < 0 ? 0 : 1 << letter;
+            int nextGuessed = guessed | bit;
+            List<Group> children = new ArrayList<>(4);
+            int start = from;
+            while (start < to) {
+                int representative = ids[start];
+                boolean miss = letter >= 0 && (dictionary.mask(representative) & bit) == 0;
+                int end = start + 1;
+                for (int k = start + 1; k < to; k++) {
+                    boolean same = letter < 0 ? sameShape(representative, ids[k]) : sameAnswer(representative, ids[k], c, miss);
+                    if (same) {
+                        int t = ids[end];
+                        ids[end] = ids[k];
+                        ids[k] = t;
+                        end++;
+                    }
+                }
+                children.add(new Group(dictionary, ids, ratings, start, end, nextGuessed, mistakes + (miss ? 1 : 0), true));
+                start = end;
+            }
+            return children;
+        }
+
+        private boolean sameAnswer(int a, int b, char c, boolean aMisses) {
+            int bit = 1 << (c - 'A');
+            boolean bMisses = (dictionary.mask(b) & bit) == 0;
+            if (aMisses || bMisses) return aMisses == bMisses;
+            int length = dictionary.length(a);
+            for (int i = 0; i < length; i++) {
+                if ((dictionary.charAt(a, i) == c) != (dictionary.charAt(b, i) == c)) return false;
+            }
+            return true;
+        }
+
+        private boolean sameShape(int a, int b) {
+            int length = dictionary.length(a);
+            for (int i = 0; i < length; i++) {
+                char ca = dictionary.charAt(a, i), cb = dictionary.charAt(b, i);
+                boolean letterA = HangmanState.letterIndex(ca) >= 0, letterB = HangmanState.letterIndex(cb) >= 0;
+                if (letterA != letterB || (!letterA && ca != cb)) return false;
+            }
+            return true;
+        }
+    }
+
+    // ===============================
+    // Batch pipeline
+    // ===============================
+
+    public static void main(String[] args) throws IOException {
+        String path = args.length > 0 ? args[0] : System.getProperty("arcade.wordList", "src/words.tsv");
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        String out = args.length > 2 ? args[2] : null;
+
+        long t0 = System.nanoTime();
+        WordDictionary dictionary = WordDictionary.load(path);
+        long t1 = System.nanoTime();
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        byte[] ratings = rateAll(dictionary, pool);
+        long t2 = System.nanoTime();
+        pool.shutdown();
+        dictionary.applyRatings(ratings, Hangman.MAX_MISTAKES);
+
+        long[] histogram = new long[HangmanState.ALPHABET + 1];
+        long sum = 0, losses = 0;
+        for (byte r : ratings) {
+            histogram[r]++;
+            sum += r;
+            if (r >= Hangman.MAX_MISTAKES) losses++;
+        }
+
+        if (out != null) {
+            try (BufferedWriter w = Files.newBufferedWriter(Paths.get(out), StandardCharsets.UTF_8)) {
+                w.write("# rated by HangmanSolver: difficulty from mistakes needed (max " + Hangman.MAX_MISTAKES + ")");
+                w.newLine();
+                for (int id = 0; id < dictionary.size(); id++) {
+                    w.write(dictionary.word(id) + "\t" + dictionary.hint(id) + "\t"
+                            + dictionary.category(id) + "\t" + dictionary.difficulty(id));
+                    w.newLine();
+                }
+            }
+        }
+
+        int n = dictionary.size();
+        double seconds = (t2 - t1) / 1e9;
+        StringBuilder mistakes = new StringBuilder();
+        for (int m = 0; m < histogram.length; m++) {
+            if (histogram[m] == 0) continue;
+            if (mistakes.length() > 0) mistakes.append(", ");
+            mistakes.append('"').append(m).append("\": ").append(histogram[m]);
+        }
+        System.out.printf(Locale.ROOT,
+                "{%n"
+                + "  \"words\": %d,%n"
+                + "  \"threads\": %d,%n"
+                + "  \"loadSeconds\": %.3f,%n"
+                + "  \"rateSeconds\": %.3f,%n"
+                + "  \"wordsPerSecond\": %.0f,%n"
+                + "  \"meanMistakes\": %.4f,%n"
+                + "  \"solverLossRate\": %.6f,%n"
+                + "  \"mistakes\": {%s}%n"
+                + "}%n",
+                n, threads, (t1 - t0) / 1e9, seconds, n / seconds,
+                n == 0 ? 0.0 : (double) sum / n, n == 0 ? 0.0 : (double) losses / n, mistakes);
+    }
+}
@@ -0,0 +1,206 @@
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * HangmanState.java
+ * - State and rules of one Hangman round, with no Swing dependency
+ *   (Hangman shows it, solvers and bots drive it headless)
+ * - The letters of the phrase and the letters guessed are 26-bit masks
+ *   (bit 0 = 'A'); win, loss and mistakes are bit operations on them
+ * - Each letter's positions are kept in one flat array grouped by letter,
+ *   so a guess reveals exactly its own positions and nothing is rescanned
+ * - The display text ("T _ N I") is a char[] patched in place per guess
+ * - reset() reuses its arrays when the new phrase fits, so a state can be
+ *   replayed millions of times without allocating
+ *
+ * Only A-Z are guessable; spaces, digits and punctuation show from the start.
+ */
+public final class HangmanState {
+
+    /** Results of guess(). */
+    public static final int IGNORED = 0;   // not a letter, already guessed, or round over
+    public static final int HIT = 1;       // letter is in the phrase
+    public static final int MISS = 2;      // letter is not in the phrase
+
+    public static final int ALPHABET = 26;
+    public static final int ALL_LETTERS = (1 << ALPHABET) - 1;
+
+    private final int maxMistakes;
+
+    private String phrase = "";
+    private int wordMask;                        // letters present in the phrase
+    private int guessedMask;                     // letters guessed so far
+    private int hidden;                          // letter positions still hidden
+
+    // positions of letter L are positions[start[L] .. start[L + 1])
+    private final int[] start = new int[ALPHABET + 1];
+    private final int[] next = new int[ALPHABET];
+    private int[] positions = new int[0];
+
+    // "T _ N I": phrase char i is at display[2 * i]
+    private char[] display = new char[0];
+
+    public HangmanState(int maxMistakes) {
+        if (maxMistakes < 1) throw new IllegalArgumentException("maxMistakes must be positive: " + maxMistakes);
+        this.maxMistakes = maxMistakes;
+    }
+
+    /**
+     * Starts a round on a new phrase (case-insensitive) and clears all guesses.
+     */
+    public void reset(String newPhrase) {
+        String p = newPhrase.toUpperCase(Locale.ROOT);
+        int n = p.length();
+        if (positions.length < n) positions = new int[n];
+        int displayLength = Math.max(0, n * 2 - 1);
+        if (display.length != displayLength) display = new char[displayLength];
+
+        // counting sort of positions by letter
+        Arrays.fill(start, 0);
+        int mask = 0, letters = 0;
+        for (int i = 0; i < n; i++) {
+            int l = letterIndex(p.charAt(i));
+            if (l >= 0) {
+                start[l + 1]++;
+                mask |= 1 << l;
+                letters++;
+            }
+        }
+        for (int l = 0; l < ALPHABET; l++) start[l + 1] += start[l];
+        System.arraycopy(start, 0, next, 0, ALPHABET);
+
+        for (int i = 0; i < n; i++) {
+            char c = p.charAt(i);
+            int l = letterIndex(c);
+            if (l >= 0) positions[next[l]++] = i;
+            display[i * 2] = l >= 0 ? '_' : c;
+            if (i + 1 < n) display[i * 2 + 1] = ' ';
+        }
+
+        phrase = p;
+        wordMask = mask;
+        guessedMask = 0;
+        hidden = letters;
+    }
+
+    // ===============================
+    // Moves
+    // ===============================
+
+    /**
+     * Guesses a letter; see the result constants. A hit reveals every
+     * position of that letter.
+     */
+    public int guess(char letter) {
+        int l = letterIndex(Character.toUpperCase(letter));
+        if (l < 0 || isOver()) return IGNORED;
+        int bit = 1 << l;
+        if ((guessedMask & bit) != 0) return IGNORED;
+        guessedMask |= bit;
+        if ((wordMask & bit) == 0) return MISS;
+
+        char c = (char) ('A' + l);
+        for (int k = start[l]; k < start[l + 1]; k++) {
+            display[positions[k] * 2] = c;
+        }
+        hidden -= start[l + 1] - start[l];
+        return HIT;
+    }
+
+    // ===============================
+    // Queries
+    // ===============================
+
+    public String getPhrase() {
+        return phrase;
+    }
+
+    public int getMaxMistakes() {
+        return maxMistakes;
+    }
+
+    public int getWordMask() {
+        return wordMask;
+    }
+
+    public int getGuessedMask() {
+        return guessedMask;
+    }
+
+    /** Letters guessed that are not in the phrase. */
+    public int getMissMask() {
+        return guessedMask & ~wordMask;
+    }
+
+    public int getMistakes() {
+        return Integer.bitCount(guessedMask & ~wordMask);
+    }
+
+    public int getLivesLeft() {
+        return maxMistakes - getMistakes();
+    }
+
+    /** Letters of the phrase not guessed yet. */
+    public int getRemainingMask() {
+        return wordMask & ~guessedMask;
+    }
+
+    public boolean isGuessed(char letter) {
+        int l = letterIndex(Character.toUpperCase(letter));
+        return l >= 0 && (guessedMask & (1 << l)) != 0;
+    }
+
+    /** Number of letter positions still shown as '_'. */
+    public int getHiddenCount() {
+        return hidden;
+    }
+
+    public boolean isRevealed(int position) {
+        int l = letterIndex(phrase.charAt(position));
+        return l < 0 || (guessedMask & (1 << l)) != 0;
+    }
+
+    /** Positions of a letter in the phrase, in order. */
+    public int[] positionsOf(char letter) {
+        int l = letterIndex(Character.toUpperCase(letter));
+        if (l < 0) return new int[0];
+        return Arrays.copyOfRange(positions, start[l], start[l + 1]);
+    }
+
+    public boolean isWon() {
+        return (wordMask & ~guessedMask) == 0;
+    }
+
+    public boolean isLost() {
+        return Integer.bitCount(guessedMask & ~wordMask) >= maxMistakes;
+    }
+
+    public boolean isOver() {
+        return isWon() || isLost();
+    }
+
+    /** The phrase as shown to the player, e.g. "T _ N I". */
+    public String display() {
+        return new String(display);
+    }
+
+    // ===============================
+    // Letters
+    // ===============================
+
+    /** 0-25 for 'A'-'Z', -1 for anything else. */
+    public static int letterIndex(char c) {
+        int l = c - 'A';
+        return l >= 0 && l < ALPHABET ? l : -1;
+    }
+
+    /** Set of letters (A-Z, case-insensitive) in a string as a 26-bit mask. */
+    public static int letterMask(CharSequence s) {
+        int mask = 0;
+        for (int i = 0; i < s.length(); i++) {
+            int l = letterIndex(Character.toUpperCase(s.charAt(i)));
+            if (l >= 0) mask |= 1 << l;
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,166 @@
+import javax.swing.SwingUtilities;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * JackpotPool.java
+ * - Progressive jackpot shared by every slot window (and any other thread
+ *   in the process) in centavos
+ * - contribute() adds to one of several striped cells with a CAS, so many
+ *   contributors never meet on one lock or one cache line
+ * - award() is linearizable: it seals every cell (getAndSet to a sentinel),
+ *   sums them, and reopens the pool; a contribution either lands before its
+ *   cell is sealed and is paid out, or waits for the reopen and goes to the
+ *   next pool
+ * - Only contributions fund it: it starts empty, and an award holds back
+ *   up to the seed (never more than half the pool) to restart the next one
+ * - Changes are pushed to listeners on the EDT by one "jackpot-notifier"
+ *   thread, coalesced to at most one update every NOTIFY_MILLIS
+ */
+public final class JackpotPool {
+
+    public interface Listener {
+        /** Called on the EDT with the current pool in centavos. */
+        void poolChanged(long centavos);
+    }
+
+    private static final long SEALED = Long.MIN_VALUE;
+    private static final int STRIDE = 16;            // 128 bytes between cells: no false sharing
+    private static final long NOTIFY_MILLIS = 100;
+
+    private static JackpotPool instance;
+
+    private final int cells;
+    private final AtomicLongArray slots;
+    private final long seedCentavos; // most an award holds back for the next pool
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final Thread notifier;
+    private volatile long lastPublished = -1;
+
+    JackpotPool(long seedCentavos) {
+        int n = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)) << 1;
+        this.cells = n;
+        this.slots = new AtomicLongArray(n * STRIDE);
+        this.seedCentavos = seedCentavos;
+
+        notifier = new Thread(this::notifyLoop, "jackpot-notifier");
+        notifier.setDaemon(true);
+        notifier.start();
+    }
+
+    /** The pool shared by all slot windows; configured from slot.properties. */
+    public static synchronized JackpotPool get() {
+        if (instance == null) {
+            instance = new JackpotPool(SlotConfig.get().getJackpotSeedCentavos());
+        }
+        return instance;
+    }
+
+    // ===============================
+    // Contributions (hot path)
+    // ===============================
+
+    public void contribute(long centavos) {
+        if (centavos <= 0) return;
+        int h = mix(System.identityHashCode(Thread.currentThread()));
+        while (true) {
+            int i = (h & (cells - 1)) * STRIDE;
+            long v = slots.get(i);
+            if (v == SEALED) {
+                Thread.onSpinWait(); // an award is in progress; it finishes quickly
+                continue;
+            }
+            if (slots.compareAndSet(i, v, v + centavos)) break;
+            h = mix(h + 1);      // contended: try another cell
+        }
+        if (!dirty.getAndSet(true)) LockSupport.unpark(notifier);
+    }
+
+    private static int mix(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // ===============================
+    // Reads and award
+    // ===============================
+
+    /**
+     * What a jackpot would pay now (the pool less what it holds back). Like
+     * LongAdder.sum() this is not a snapshot while contributions are
+     * running; use it for display only.
+     */
+    public long value() {
+        long sum = 0;
+        for (int c = 0; c < cells; c++) {
+            long v = slots.get(c * STRIDE);
+            if (v != SEALED) sum += v;
+        }
+        return sum - carry(sum, seedCentavos);
+    }
+
+    /**
+     * Pays out the pool less the part held back to restart it. Awards are
+     * serialized with each other; contributions are never blocked for
+     * longer than one award takes.
+     */
+    public synchronized long award() {
+        long total = 0;
+        for (int c = 0; c < cells; c++) {
+            total += slots.getAndSet(c * STRIDE, SEALED);
+        }
+        // every cell is sealed here: this is the award's linearization point
+        long carry = carry(total, seedCentavos);
+        for (int c = cells - 1; c >= 0; c--) {
+            slots.set(c * STRIDE, c == 0 ? carry : 0);
+        }
+        if (!dirty.getAndSet(true)) LockSupport.unpark(notifier);
+        return total - carry;
+    }
+
+    /** What an award of a pool holds back for the next one; SlotSimulator replays it. */
+    static long carry(long poolCentavos, long seedCentavos) {
+        return Math.min(seedCentavos, poolCentavos / 2);
+    }
+
+    // ===============================
+    // Push updates
+    // ===============================
+
+    /**
+     * Registers a listener on the EDT; it is told the current value right away.
+     */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+        listener.poolChanged(value());
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    private void notifyLoop() {
+        while (true) {
+            while (!dirty.getAndSet(false)) {
+                LockSupport.park(this);
+            }
+            long v = value();
+            if (v != lastPublished && !listeners.isEmpty()) {
+                lastPublished = v;
+                SwingUtilities.invokeLater(() -> {
+                    for (Listener l : listeners) l.poolChanged(v);
+                });
+            }
+            // changes in the next window are folded into one update
+            try {
+                Thread.sleep(NOTIFY_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+}
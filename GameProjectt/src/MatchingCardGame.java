@@ -1,37 +1,51 @@
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.util.List;
-import java.util.ArrayList;
-import java.util.Collections;
-
-public class MatchingCardGame extends JFrame implements ActionListener {
-
-    // Total pairs and total cards
-    private static final int PAIRS = 5;
-    private static final int CARDS = PAIRS * 2;
-
-    // UI components
-    private JButton[] cards = new JButton[CARDS];
-    private int[] cardIds = new int[CARDS]; // stores which card image is where
-    private ImageIcon[] icons = new ImageIcon[PAIRS];
-    private ImageIcon backIcon;
+import java.util.SplittableRandom;
+
+public class MatchingCardGame extends JFrame {
+
+    // Board sizes: name, pairs, columns, card size (px), gap (px)
+    static final Object[][] BOARD_SIZES = {
+            { "Classic (10 cards)", 5, 5, 130, 18 },
+            { "Challenge (100 cards)", 50, 10, 80, 10 },
+            { "Expert (400 cards)", 200, 20, 64, 8 },
+            { "Marathon (2000 cards)", 1000, 40, 64, 8 }
+    };
+
+    // Card images, preloaded at every board size's card size by AssetPreloader
+    static final String[] CARD_FILES = { "card1.png", "card2.png", "card3.png", "card4.png", "card5.png" };
+    static final String BACK_FILE = "backcard.png";
+
+    // Board state and the single component that draws it
+    private MemoryBoard board;
+    private BoardView boardView;
+    private JScrollPane boardScroll;
+    private final SplittableRandom random = new SplittableRandom();
+    private SpriteAtlas atlas;               // all faces + the back on one sheet
+    private int[] faceSprites = new int[CARD_FILES.length];
+    private int backSprite;
+    private int atlasCardSize = -1;
+    private Timer mismatchTimer;             // flips a mismatch back down
+
+    // Versus mode: the computer takes turns with the player (null = solo)
+    private MemoryAI.Level cpuLevel;
+    private MemoryAI ai;
+    private Timer cpuTimer;                  // paces the computer's flips
+    private boolean cpuTurn = false;
+    private int playerPairs = 0, cpuPairs = 0;
+    private static final int CPU_FLIP_MILLIS = 650;
 
     private JLabel infoLabel;
-    private int firstIndex = -1;   // first card clicked
-    private int secondIndex = -1;  // second card clicked
-    private boolean lock = false;  // prevent clicking while checking match
-
     private boolean reminderShown = false;
-    
-    private int moves = 0;
-    private int pairsFound = 0;
+    private int ticketsEarned = 0;           // this visit, for the reminder
+    private boolean entryPlayed = false;     // the paid entry's board is done; replays earn nothing
 
-    // store dashboard balance to reopen
-    private double dashboardBalance;
+    // card whose Dashboard reopens when the game closes
+    private final long card;
 
-    public MatchingCardGame(double balance) {
-        this.dashboardBalance = balance;
+    public MatchingCardGame(long card) {
+        this.card = card;
 
         customizeOptionPaneUI();
 
@@ -43,8 +57,6 @@ public class MatchingCardGame extends JFrame implements ActionListener {
         setLayout(new BorderLayout());
         getContentPane().setBackground(new Color(8, 10, 30));
 
-        loadIcons(); // load images
-
         // Header
         JPanel header = new JPanel();
         header.setLayout(new BoxLayout(header, BoxLayout.Y_AXIS));
@@ -60,7 +72,7 @@ public class MatchingCardGame extends JFrame implements ActionListener {
         sub.setForeground(new Color(180, 190, 255));
         sub.setAlignmentX(Component.CENTER_ALIGNMENT);
 
-        infoLabel = new JLabel("Moves: 0    Pairs: 0/" + PAIRS, JLabel.CENTER);
+        infoLabel = new JLabel("Moves: 0    Pairs: 0/0", JLabel.CENTER);
         infoLabel.setForeground(new Color(160, 220, 255));
 
         JPanel statsBox = new JPanel();
@@ -81,23 +93,11 @@ public class MatchingCardGame extends JFrame implements ActionListener {
         center.setBackground(new Color(8, 10, 30));
         center.setBorder(BorderFactory.createEmptyBorder(18, 40, 18, 40));
 
-        JPanel grid = new JPanel(new GridLayout(2, 5, 18, 18));
-        grid.setBackground(new Color(8, 10, 30));
-        grid.setBorder(BorderFactory.createLineBorder(new Color(255, 64, 180), 2, true));
-
-        // create 10 card buttons
-        for (int i = 0; i < CARDS; i++) {
-            JButton btn = new JButton();
-            btn.setBackground(new Color(20, 22, 40));
-            btn.setFocusPainted(false);
-            btn.setBorder(BorderFactory.createLineBorder(new Color(255, 64, 180), 3, true));
-            btn.addActionListener(this);
-
-            cards[i] = btn;
-            grid.add(btn);
-        }
-
-        center.add(grid, BorderLayout.CENTER);
+        boardScroll = new JScrollPane();
+        boardScroll.setBorder(BorderFactory.createLineBorder(new Color(255, 64, 180), 2, true));
+        boardScroll.getViewport().setBackground(new Color(8, 10, 30));
+        boardScroll.getVerticalScrollBar().setUnitIncrement(32);
+        center.add(boardScroll, BorderLayout.CENTER);
 
         //Footer (tip + reset button)
         JPanel footer = new JPanel();
@@ -115,9 +115,30 @@ public class MatchingCardGame extends JFrame implements ActionListener {
         reset.setAlignmentX(Component.CENTER_ALIGNMENT);
         reset.addActionListener(e -> setupBoard());
 
+        JComboBox<String> sizeBox = new JComboBox<>();
+        for (Object[] size : BOARD_SIZES) sizeBox.addItem((String) size[0]);
+        sizeBox.setFocusable(false);
+        sizeBox.addActionListener(e -> newBoard(sizeBox.getSelectedIndex()));
+
+        JComboBox<String> opponentBox = new JComboBox<>();
+        opponentBox.addItem("Solo");
+        for (MemoryAI.Level level : MemoryAI.Level.values()) opponentBox.addItem("vs CPU: " + level);
+        opponentBox.setFocusable(false);
+        opponentBox.addActionListener(e -> {
+            int i = opponentBox.getSelectedIndex();
+            cpuLevel = i == 0 ? null : MemoryAI.Level.values()[i - 1];
+            newBoard(sizeBox.getSelectedIndex());
+        });
+
+        JPanel controls = new JPanel();
+        controls.setOpaque(false);
+        controls.add(sizeBox);
+        controls.add(opponentBox);
+        controls.add(reset);
+
         footer.add(tip);
         footer.add(Box.createRigidArea(new Dimension(0, 10)));
-        footer.add(reset);
+        footer.add(controls);
 
         center.add(footer, BorderLayout.SOUTH);
         add(center, BorderLayout.CENTER);
@@ -125,7 +146,7 @@ public class MatchingCardGame extends JFrame implements ActionListener {
         // Show welcome message
         JOptionPane.showMessageDialog(this, "Welcome to the Arcade Memory Game!");
 
-        setupBoard(); // start the game
+        newBoard(0); // start the game on the classic board
 
         // ----------------------------
         // Window listener to reopen Dashboard when this window closes
@@ -134,32 +155,32 @@ public class MatchingCardGame extends JFrame implements ActionListener {
         addWindowListener(new WindowAdapter() {
             @Override
             public void windowClosed(WindowEvent e) {
-                Dashboard dash = new Dashboard(dashboardBalance);
+                stopTimers();
+                Dashboard dash = new Dashboard(card);
                 dash.setVisible(true);
-                SwingUtilities.invokeLater(() -> showClaimTicketsReminder(dash));
+                SwingUtilities.invokeLater(() -> showClaimTicketsReminder(dash, ticketsEarned));
             }
         });
 
 
     }
 
-    // Load card images
-    private void loadIcons() {
-        icons[0] = loadIcon("card1.png");
-        icons[1] = loadIcon("card2.png");
-        icons[2] = loadIcon("card3.png");
-        icons[3] = loadIcon("card4.png");
-        icons[4] = loadIcon("card5.png");
-
-        backIcon = loadIcon("backcard.png");
-    }
+    // Load card images (already resized by AssetPreloader) into one atlas
+    private void loadIcons(int size) {
+        if (size == atlasCardSize) return;
+        int faces = CARD_FILES.length;
+        String[] paths = new String[faces + 1];
+        for (int i = 0; i < faces; i++) {
+            paths[i] = "src/images/" + CARD_FILES[i];
+        }
+        paths[faces] = "src/images/" + BACK_FILE;
 
-    // Load and resize an image for the cards
-    private ImageIcon loadIcon(String file) {
-        var url = getClass().getResource("/images/" + file);
-        ImageIcon img = new ImageIcon(url);
-        Image scaled = img.getImage().getScaledInstance(130, 130, Image.SCALE_SMOOTH);
-        return new ImageIcon(scaled);
+        atlas = SpriteAtlas.build(paths, size, size);
+        for (int i = 0; i < faces; i++) {
+            faceSprites[i] = atlas.idOf(paths[i]);
+        }
+        backSprite = atlas.idOf(paths[faces]);
+        atlasCardSize = size;
     }
 
     private void customizeOptionPaneUI() {
@@ -179,114 +200,143 @@ public class MatchingCardGame extends JFrame implements ActionListener {
     }
 
     // Create a smaller icon for the dialog 
-    private ImageIcon smallIcon(ImageIcon icon) {
-        if (icon == null) return null;
-        Image img = icon.getImage().getScaledInstance(64, 64, Image.SCALE_SMOOTH);
-        return new ImageIcon(img);
+    private ImageIcon smallIcon(String file) {
+        return AssetCache.scaledIcon("src/images/" + file, 64, 64);
+    }
+
+    // switch to one of BOARD_SIZES and deal it
+    private void newBoard(int sizeIndex) {
+        Object[] size = BOARD_SIZES[sizeIndex];
+        int pairs = (Integer) size[1];
+        int columns = (Integer) size[2];
+        int cardSize = (Integer) size[3];
+        int gap = (Integer) size[4];
+
+        loadIcons(cardSize);
+        board = new MemoryBoard(pairs);
+        ai = cpuLevel == null ? null : new MemoryAI(pairs, cpuLevel, random);
+        boardView = new BoardView(board, atlas, faceSprites, backSprite, columns, cardSize, gap);
+        boardView.setListener(this::cardClicked);
+        boardScroll.setViewportView(boardView);
+        setupBoard();
     }
 
     // shuffle cards and reset variables 
     private void setupBoard() {
-        List<Integer> nums = new ArrayList<>();
-
-        for (int i = 0; i < PAIRS; i++) {
-            nums.add(i);
-            nums.add(i);
-        }
-
-        Collections.shuffle(nums);
-
-        for (int i = 0; i < CARDS; i++) {
-            cardIds[i] = nums.get(i);
-            cards[i].setEnabled(true);
-            cards[i].setIcon(backIcon);
-            cards[i].setDisabledIcon(null); // reset disabled icon
-        }
-
-        firstIndex = -1;
-        secondIndex = -1;
-        lock = false;
-        moves = 0;
-        pairsFound = 0;
+        stopTimers();
+        board.reset(random);
+        if (ai != null) ai.reset();
+        cpuTurn = false;
+        playerPairs = 0;
+        cpuPairs = 0;
+        boardScroll.getViewport().setViewPosition(new Point(0, 0));
+        boardView.repaint();
         updateInfo();
     }
 
     // Update the moves/pairs info label
     private void updateInfo() {
-        infoLabel.setText("Moves: " + moves + "    Pairs: " + pairsFound + "/" + PAIRS);
-    }
-
-    // When the card is clicked
-    @Override
-    public void actionPerformed(ActionEvent e) {
-        if (lock) return;
-
-        int index = -1;
-        for (int i = 0; i < CARDS; i++) {
-            if (cards[i] == e.getSource()) {
-                index = i;
-                break;
-            }
-        }
-
-        if (index == -1 || !cards[index].isEnabled() || index == firstIndex) return;
-
-        reveal(index);
-
-        if (firstIndex == -1) {
-            firstIndex = index;
-        } else {
-            secondIndex = index;
-            moves++;
-            updateInfo();
-            checkMatch();
+        String text = "Moves: " + board.getMoves() + "    Pairs: " + board.getPairsFound() + "/" + board.pairs();
+        if (ai != null) {
+            text += "    You: " + playerPairs + "  CPU: " + cpuPairs + "    " + (cpuTurn ? "CPU's turn" : "Your turn");
         }
+        infoLabel.setText(text);
     }
 
-    private void reveal(int index) {
-        cards[index].setIcon(icons[cardIds[index]]);
-        cards[index].setDisabledIcon(icons[cardIds[index]]); // keep color when disabled
+    private void stopTimers() {
+        if (mismatchTimer != null) mismatchTimer.stop();
+        if (cpuTimer != null) cpuTimer.stop();
     }
 
-    private void hide(int index) {
-        cards[index].setIcon(backIcon);
+    // When a card is clicked (BoardView already mapped the click to its index)
+    private void cardClicked(int index) {
+        if (cpuTurn) return;
+        reveal(index);
     }
 
-    // Check if two flipped cards match 
-    private void checkMatch() {
-        if (cardIds[firstIndex] == cardIds[secondIndex]) {
-            // match found
-            cards[firstIndex].setEnabled(false);
-            cards[secondIndex].setEnabled(false);
-            pairsFound++;
-            firstIndex = -1;
-            secondIndex = -1;
+    // Turn a card over for whoever's turn it is; the computer sees every card
+    private void reveal(int index) {
+        int first = board.getFirst();
+        int result = board.flip(index);
+        if (result == MemoryBoard.IGNORED) return;
+
+        AudioEngine.play("click");
+        boardView.repaintCard(index);
+        if (ai != null) ai.observe(index, board.idAt(index));
+
+        if (result == MemoryBoard.MATCH) {
+            AudioEngine.play("coin");
+            if (ai != null) {
+                ai.matched(first, index);
+                if (cpuTurn) cpuPairs++;
+                else playerPairs++;
+            }
             updateInfo();
-
-            if (pairsFound == PAIRS) win();
-        } else {
-            // not a match → flip back after 0.8 sec
-            lock = true;
-            Timer t = new Timer(800, e -> {
-                hide(firstIndex);
-                hide(secondIndex);
-                firstIndex = -1;
-                secondIndex = -1;
-                lock = false;
+            if (board.isComplete()) win();
+            else if (cpuTurn) cpuMove(); // a match earns another turn
+        } else if (result == MemoryBoard.MISMATCH) {
+            updateInfo();
+            // not a match → flip back after 0.8 sec; the board ignores clicks until then
+            int second = board.getSecond();
+            mismatchTimer = new Timer(800, e -> {
+                board.hideMismatch();
+                boardView.repaintCard(first);
+                boardView.repaintCard(second);
+                if (ai != null) {
+                    cpuTurn = !cpuTurn;
+                    updateInfo();
+                    if (cpuTurn) cpuMove();
+                }
             });
-            t.setRepeats(false);
-            t.start();
+            mismatchTimer.setRepeats(false);
+            mismatchTimer.start();
         }
     }
 
+    // The computer's move: two flips, paced so the player can follow them
+    private void cpuMove() {
+        cpuTimer = new Timer(CPU_FLIP_MILLIS, null);
+        cpuTimer.addActionListener(e -> {
+            if (board.getFirst() < 0) {
+                int first = ai.pickFirst(board);
+                reveal(first);
+            } else {
+                cpuTimer.stop();
+                int second = ai.pickSecond(board, board.getFirst());
+                reveal(second);
+            }
+        });
+        cpuTimer.setInitialDelay(CPU_FLIP_MILLIS);
+        cpuTimer.start();
+    }
+
     //Player wins 
     private void win() {
         // Use a smaller version of one of the card icons as the dialog icon
-        ImageIcon icon = smallIcon(icons[0]);
+        ImageIcon icon = smallIcon(CARD_FILES[0]);
+
+        String message = "You win!\nMoves: " + board.getMoves();
+        if (ai != null) {
+            String outcome = playerPairs > cpuPairs ? "You win!" : playerPairs < cpuPairs ? "The CPU wins!" : "It's a tie!";
+            message = outcome + "\nYou: " + playerPairs + "  CPU: " + cpuPairs + " (" + cpuLevel + ")";
+        }
+
+        // one award per paid entry: "Play again" and new board sizes are free
+        if (entryPlayed) {
+            message += "\nFree round: no tickets";
+        } else {
+            entryPlayed = true;
+            int tickets = ai == null
+                    ? TicketLedger.memoryTickets(board.getPairsFound(), board.getMoves(), board.pairs(), true)
+                    : TicketLedger.memoryTickets(playerPairs, board.getMoves(), board.pairs(), playerPairs > cpuPairs);
+            TicketLedger.get().award(card, tickets, TicketLedger.MEMORY);
+            ticketsEarned += tickets;
+            message += "\nTickets: +" + tickets;
+        }
 
         int ans = JOptionPane.showConfirmDialog(
                 this,
-                "You win!\nMoves: " + moves + "\nPlay again?",
+                message + "\nPlay again?",
                 "Winner!",
                 JOptionPane.YES_NO_OPTION,
                 JOptionPane.PLAIN_MESSAGE,
@@ -297,10 +347,10 @@ public class MatchingCardGame extends JFrame implements ActionListener {
     }
 
     public static void main(String[] args) {
-        SwingUtilities.invokeLater(() -> new MatchingCardGame(250.00).setVisible(true));
+        SwingUtilities.invokeLater(() -> new MatchingCardGame(Wallet.DEFAULT_CARD).setVisible(true));
     }
     
-    private void showClaimTicketsReminder(JFrame parent) {
+    private void showClaimTicketsReminder(JFrame parent, int tickets) {
         if (reminderShown) return; // Prevent multiple popups
         reminderShown = true;
 
@@ -325,17 +375,21 @@ public class MatchingCardGame extends JFrame implements ActionListener {
         mainPanel.setLayout(new BorderLayout());
         mainPanel.setBorder(BorderFactory.createLineBorder(Color.YELLOW, 4, true));
 
-        ImageIcon logoIcon = new ImageIcon("src/images/timezone.png");
+        ImageIcon logoIcon = AssetCache.icon("src/images/timezone.png");
         JLabel logoLabel = new JLabel(logoIcon);
         logoLabel.setHorizontalAlignment(SwingConstants.CENTER);
         logoLabel.setPreferredSize(new Dimension(350, 150));
         mainPanel.add(logoLabel, BorderLayout.NORTH);
 
-        JLabel message = new JLabel("<html><center>🎉 Don't forget to claim your tickets! 🎉</center></html>");
+        JLabel message = new JLabel("<html><center>🎉 Don't forget to claim your " + tickets + " tickets! 🎉</center></html>");
         message.setFont(new Font("Monospaced", Font.BOLD, 16));
         message.setForeground(Color.WHITE);
         message.setHorizontalAlignment(SwingConstants.CENTER);
         mainPanel.add(message, BorderLayout.CENTER);
+        // the card total comes from the ledger's writer thread, not the EDT
+        TicketLedger.get().balance(card).thenAccept(total -> SwingUtilities.invokeLater(() -> message.setText(
+                "<html><center>🎉 Don't forget to claim your " + tickets + " tickets! 🎉<br>Card total: "
+                + total + "</center></html>")));
 
         JButton okBtn = new JButton("CONTINUE PLAYING");
         okBtn.setFont(new Font("Monospaced", Font.BOLD, 14));
@@ -0,0 +1,248 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * MemoryAI.java
+ * - Computer player for MemoryBoard with an imperfect memory
+ * - A Level sets how many cards it can hold in mind (oldest are forgotten
+ *   first) and how often it recalls a remembered card correctly
+ * - It sees every card turned over, by either player, through observe()
+ * - No Swing and no allocation per move, so MemorySolver can play it
+ *   millions of times
+ *
+ * Per turn: play a remembered pair if it recalls one; otherwise turn over
+ * an unknown card and, if its partner is remembered, take it, else turn
+ * over another unknown card.
+ */
+public final class MemoryAI {
+
+    public enum Level {
+        EASY("Easy", 0.35, 6),
+        NORMAL("Normal", 0.65, 16),
+        HARD("Hard", 0.9, 48),
+        PERFECT("Perfect", 1.0, Integer.MAX_VALUE);
+
+        final String label;
+        final double recall;    // chance a remembered card is recalled correctly
+        final int capacity;     // cards held in memory at once
+
+        Level(String label, double recall, int capacity) {
+            this.label = label;
+            this.recall = recall;
+            this.capacity = capacity;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private final Level level;
+    private final SplittableRandom random;
+    private final int cards;
+    private final int capacity;
+
+    // what it remembers: card -> pair id (-1 unknown), pair id -> the two cards
+    private final int[] memId;
+    private final int[] memA, memB;
+
+    // oldest-first memory, entries are (stamp << 32 | card); stale stamps are skipped
+    private final long[] order;
+    private final int[] stamp;
+    private int orderHead = 0, orderSize = 0, remembered = 0;
+
+    // cards that are neither matched nor remembered, for O(1) random picks
+    private final int[] unknown, unknownPos;
+    private int unknownCount;
+
+    // pairs it has seen both cards of, as a stack of (a << 32 | b); stale ones are skipped
+    private final long[] knownPairs;
+    private int knownCount;
+
+    private int plannedSecond = -1;
+
+    public MemoryAI(int pairs, Level level, SplittableRandom random) {
+        this.level = level;
+        this.random = random;
+        this.cards = pairs * 2;
+        this.capacity = Math.min(level.capacity, cards);
+        memId = new int[cards];
+        memA = new int[pairs];
+        memB = new int[pairs];
+        order = new long[Math.max(1, capacity) * 2 + cards];
+        stamp = new int[cards];
+        unknown = new int[cards];
+        unknownPos = new int[cards];
+        knownPairs = new long[cards];
+        reset();
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    /** Forgets everything, for a new board of the same size. */
+    public void reset() {
+        Arrays.fill(memId, -1);
+        Arrays.fill(memA, -1);
+        Arrays.fill(memB, -1);
+        orderHead = 0;
+        orderSize = 0;
+        remembered = 0;
+        for (int i = 0; i < cards; i++) {
+            unknown[i] = i;
+            unknownPos[i] = i;
+        }
+        unknownCount = cards;
+        knownCount = 0;
+        plannedSecond = -1;
+    }
+
+    // ===============================
+    // Choosing cards
+    // ===============================
+
+    public int pickFirst(MemoryBoard board) {
+        plannedSecond = -1;
+        // newest first; stale pairs are dropped, a pair it fails to recall stays for later turns
+        for (int i = knownCount - 1; i >= 0; i--) {
+            long pair = knownPairs[i];
+            int a = (int) (pair >>> 32), b = (int) pair;
+            boolean stale = !(memId[a] >= 0 && memId[a] == memId[b] && isUsable(board, a) && isUsable(board, b));
+            if (!stale && !recalls()) continue;
+            knownPairs[i] = knownPairs[--knownCount]; // the top was already looked at this turn
+            if (!stale) {
+                plannedSecond = b;
+                return a;
+            }
+        }
+        return pickUnknown(board, -1);
+    }
+
+    public int pickSecond(MemoryBoard board, int first) {
+        if (plannedSecond >= 0 && isUsable(board, plannedSecond) && plannedSecond != first) {
+            return plannedSecond;
+        }
+        int id = board.idAt(first); // face up, so seen
+        int other = memA[id] == first ? memB[id] : memA[id];
+        if (other >= 0 && other != first && isUsable(board, other) && recalls()) {
+            return other;
+        }
+        return pickUnknown(board, first);
+    }
+
+    private boolean recalls() {
+        return level.recall >= 1.0 || random.nextDouble() < level.recall;
+    }
+
+    private static boolean isUsable(MemoryBoard board, int card) {
+        return !board.isMatched(card) && !board.isRevealed(card);
+    }
+
+    private int pickUnknown(MemoryBoard board, int exclude) {
+        while (unknownCount > 0) {
+            int card = unknown[random.nextInt(unknownCount)];
+            if (card != exclude && isUsable(board, card)) return card;
+            if (board.isMatched(card)) {
+                removeUnknown(card);
+            } else if (unknownCount == 1) {
+                break;
+            }
+        }
+        // everything left is remembered (or forgotten badly): take any free card
+        int start = random.nextInt(cards);
+        for (int k = 0; k < cards; k++) {
+            int card = (start + k) % cards;
+            if (card != exclude && isUsable(board, card)) return card;
+        }
+        return -1;
+    }
+
+    // ===============================
+    // Observing the board
+    // ===============================
+
+    /** Every card turned face up, by either player, is shown to the AI. */
+    public void observe(int card, int id) {
+        if (memId[card] == id) return;
+        if (capacity == 0) return;
+        while (remembered >= capacity) forgetOldest();
+
+        memId[card] = id;
+        remembered++;
+        stamp[card]++;
+        order[(orderHead + orderSize++) % order.length] = ((long) stamp[card] << 32) | card;
+        removeUnknown(card);
+
+        if (memA[id] < 0) {
+            memA[id] = card;
+        } else if (memA[id] != card && memB[id] < 0) {
+            memB[id] = card;
+            if (knownCount == knownPairs.length) dropForgottenPairs();
+            if (knownCount < knownPairs.length) {
+                knownPairs[knownCount++] = ((long) memA[id] << 32) | card;
+            }
+        }
+    }
+
+    /** Both cards of a pair were matched (by either player). */
+    public void matched(int a, int b) {
+        forget(a);
+        forget(b);
+        removeUnknown(a);
+        removeUnknown(b);
+    }
+
+    private void forgetOldest() {
+        while (orderSize > 0) {
+            long entry = order[orderHead];
+            orderHead = (orderHead + 1) % order.length;
+            orderSize--;
+            int card = (int) entry;
+            if ((int) (entry >>> 32) == stamp[card] && memId[card] >= 0) {
+                forget(card);
+                addUnknown(card);
+                return;
+            }
+        }
+        remembered = 0; // nothing valid left in the queue
+    }
+
+    private void forget(int card) {
+        int id = memId[card];
+        if (id < 0) return;
+        memId[card] = -1;
+        remembered--;
+        if (memA[id] == card) {
+            memA[id] = memB[id];
+            memB[id] = -1;
+        } else if (memB[id] == card) {
+            memB[id] = -1;
+        }
+    }
+
+    // makes room in knownPairs: pairs not recalled stay there, so forgotten ones can pile up
+    private void dropForgottenPairs() {
+        int kept = 0;
+        for (int i = 0; i < knownCount; i++) {
+            long pair = knownPairs[i];
+            int a = (int) (pair >>> 32), b = (int) pair;
+            if (memId[a] >= 0 && memId[a] == memId[b]) knownPairs[kept++] = pair;
+        }
+        knownCount = kept;
+    }
+
+    private void addUnknown(int card) {
+        unknownPos[card] = unknownCount;
+        unknown[unknownCount++] = card;
+    }
+
+    private void removeUnknown(int card) {
+        int pos = unknownPos[card];
+        if (pos >= unknownCount || unknown[pos] != card) return;
+        int last = unknown[--unknownCount];
+        unknown[pos] = last;
+        unknownPos[last] = pos;
+    }
+}
@@ -0,0 +1,164 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * MemoryBoard.java
+ * - State and rules of one memory-game board, with no Swing dependency
+ *   (MatchingCardGame draws it through BoardView, solvers use it headless)
+ * - Cards are indices 0..cards-1; ids[] holds the pair each card belongs to
+ * - Revealed and matched flags are long[] bitsets
+ * - reset() deals a fresh board with an in-place Fisher-Yates shuffle and
+ *   allocates nothing, so a board can be replayed millions of times
+ */
+public final class MemoryBoard {
+
+    /** Results of flip(). */
+    public static final int IGNORED = 0;   // locked, matched, already up or out of range
+    public static final int FIRST = 1;     // first card of a move is up
+    public static final int MATCH = 2;     // second card matched the first
+    public static final int MISMATCH = 3;  // second card differs; call hideMismatch() next
+
+    private final int pairs;
+    private final int[] ids;
+    private final long[] revealed;
+    private final long[] matched;
+
+    private int first = -1;
+    private int second = -1;
+    private int moves = 0;
+    private int pairsFound = 0;
+
+    public MemoryBoard(int pairs) {
+        if (pairs < 1) throw new IllegalArgumentException("pairs must be positive: " + pairs);
+        this.pairs = pairs;
+        this.ids = new int[pairs * 2];
+        this.revealed = new long[(ids.length + 63) >>> 6];
+        this.matched = new long[revealed.length];
+    }
+
+    /**
+     * Deals a new shuffled board and clears all progress.
+     */
+    public void reset(SplittableRandom random) {
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i >>> 1;
+        }
+        for (int i = ids.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = ids[i];
+            ids[i] = ids[j];
+            ids[j] = t;
+        }
+        Arrays.fill(revealed, 0L);
+        Arrays.fill(matched, 0L);
+        first = -1;
+        second = -1;
+        moves = 0;
+        pairsFound = 0;
+    }
+
+    // ===============================
+    // Moves
+    // ===============================
+
+    /**
+     * Turns a card face up; see the result constants. While a mismatch is
+     * showing every flip is IGNORED until hideMismatch() is called.
+     */
+    public int flip(int index) {
+        if (index < 0 || index >= ids.length || second >= 0
+                || isSet(matched, index) || isSet(revealed, index)) {
+            return IGNORED;
+        }
+        set(revealed, index);
+        if (first < 0) {
+            first = index;
+            return FIRST;
+        }
+
+        moves++;
+        if (ids[first] == ids[index]) {
+            set(matched, first);
+            set(matched, index);
+            pairsFound++;
+            first = -1;
+            return MATCH;
+        }
+        second = index;
+        return MISMATCH;
+    }
+
+    /** Turns the two cards of the last mismatch face down again. */
+    public void hideMismatch() {
+        if (second < 0) return;
+        clear(revealed, first);
+        clear(revealed, second);
+        first = -1;
+        second = -1;
+    }
+
+    // ===============================
+    // Queries
+    // ===============================
+
+    public int pairs() {
+        return pairs;
+    }
+
+    public int cards() {
+        return ids.length;
+    }
+
+    public int idAt(int index) {
+        return ids[index];
+    }
+
+    /** Face up: matched, or turned over in the current move. */
+    public boolean isRevealed(int index) {
+        return isSet(revealed, index);
+    }
+
+    public boolean isMatched(int index) {
+        return isSet(matched, index);
+    }
+
+    public int getFirst() {
+        return first;
+    }
+
+    public int getSecond() {
+        return second;
+    }
+
+    public boolean isMismatchShowing() {
+        return second >= 0;
+    }
+
+    public int getMoves() {
+        return moves;
+    }
+
+    public int getPairsFound() {
+        return pairsFound;
+    }
+
+    public boolean isComplete() {
+        return pairsFound == pairs;
+    }
+
+    // ===============================
+    // Bitsets
+    // ===============================
+
+    private static boolean isSet(long[] bits, int i) {
+        return (bits[i >>> 6] & (1L << i)) != 0;
+    }
+
+    private static void set(long[] bits, int i) {
+        bits[i >>> 6] |= 1L << i;
+    }
+
+    private static void clear(long[] bits, int i) {
+        bits[i >>> 6] &= ~(1L << i);
+    }
+}
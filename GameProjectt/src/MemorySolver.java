@@ -0,0 +1,206 @@
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * MemorySolver.java
+ * - Headless batch player for the memory game: MemoryAI plays whole
+ *   MemoryBoards alone, with no Swing involved
+ * - Games are split over a ForkJoinPool; every leaf owns its board, AI and
+ *   SplittableRandom (split from the run's seed), so workers share nothing
+ * - Reports, per board size and AI level, the distribution of moves needed
+ *   to clear a board and the games per second, as JSON
+ *
+ * Usage: java MemorySolver [games] [pairs,pairs,...] [level|all] [threads] [reportFile]
+ * Defaults: 1000000 games, pairs 5,50,200, all levels, all cores, stdout only
+ */
+public class MemorySolver {
+
+    private static final int LEAF_GAMES = 4096;
+
+    // moves histogram for one leaf; merged up the fork/join tree
+    static final class Result {
+        long[] histogram;
+        long games;
+        long sum;
+        double sumSquares;
+
+        Result(int pairs) {
+            histogram = new long[pairs * 4 + 1];
+        }
+
+        void record(int moves) {
+            if (moves >= histogram.length) {
+                histogram = Arrays.copyOf(histogram, Math.max(moves + 1, histogram.length * 2));
+            }
+            histogram[moves]++;
+            games++;
+            sum += moves;
+            sumSquares += (double) moves * moves;
+        }
+
+        Result add(Result o) {
+            if (o.histogram.length > histogram.length) histogram = Arrays.copyOf(histogram, o.histogram.length);
+            for (int i = 0; i < o.histogram.length; i++) histogram[i] += o.histogram[i];
+            games += o.games;
+            sum += o.sum;
+            sumSquares += o.sumSquares;
+            return this;
+        }
+    }
+
+    static final class Games extends RecursiveTask<Result> {
+        private static final long serialVersionUID = 1L;
+
+        private final int pairs;
+        private final MemoryAI.Level level;
+        private final long from, to;
+        private final SplittableRandom random;
+
+        Games(int pairs, MemoryAI.Level level, long from, long to, SplittableRandom random) {
+            this.pairs = pairs;
+            this.level = level;
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected Result compute() {
+            if (to - from > LEAF_GAMES) {
+                long mid = (from + to) >>> 1;
+                Games left = new Games(pairs, level, from, mid, random.split());
+                left.fork();
+                Result right = new Games(pairs, level, mid, to, random.split()).compute();
+                return right.add(left.join());
+            }
+            MemoryBoard board = new MemoryBoard(pairs);
+            MemoryAI ai = new MemoryAI(pairs, level, random);
+            Result result = new Result(pairs);
+            for (long g = from; g < to; g++) {
+                result.record(play(board, ai, random));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Plays one fresh board to the end and returns the moves it took.
+     */
+    static int play(MemoryBoard board, MemoryAI ai, SplittableRandom random) {
+        board.reset(random);
+        ai.reset();
+        while (!board.isComplete()) {
+            int first = ai.pickFirst(board);
+            board.flip(first);
+            ai.observe(first, board.idAt(first));
+
+            int second = ai.pickSecond(board, first);
+            int result = board.flip(second);
+            ai.observe(second, board.idAt(second));
+            if (result == MemoryBoard.MATCH) {
+                ai.matched(first, second);
+            } else {
+                board.hideMismatch();
+            }
+        }
+        return board.getMoves();
+    }
+
+    public static void main(String[] args) throws IOException {
+        long games = args.length > 0 ? Long.parseLong(args[0].replace("_", "")) : 1_000_000L;
+        String[] sizeArgs = (args.length > 1 ? args[1] : "5,50,200").split(",");
+        String levelArg = args.length > 2 ? args[2] : "all";
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        File reportFile = args.length > 4 ? new File(args[4]) : null;
+
+        MemoryAI.Level[] levels = "all".equalsIgnoreCase(levelArg)
+                ? MemoryAI.Level.values()
+                : new MemoryAI.Level[] { MemoryAI.Level.valueOf(levelArg.toUpperCase(Locale.ROOT)) };
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        StringBuilder json = new StringBuilder();
+        json.append("{\n  \"games\": ").append(games)
+            .append(",\n  \"threads\": ").append(threads)
+            .append(",\n  \"runs\": [");
+        boolean firstRun = true;
+        for (String sizeArg : sizeArgs) {
+            int pairs = Integer.parseInt(sizeArg.trim());
+            for (MemoryAI.Level level : levels) {
+                long start = System.nanoTime();
+                Result r = pool.invoke(new Games(pairs, level, 0, games, new SplittableRandom(pairs * 31L + level.ordinal())));
+                long elapsed = System.nanoTime() - start;
+
+                json.append(firstRun ? "\n" : ",\n").append(report(pairs, level, r, elapsed));
+                firstRun = false;
+                System.err.printf(Locale.ROOT, "pairs=%d level=%s mean=%.2f games/s=%.0f%n",
+                        pairs, level, (double) r.sum / r.games, r.games / (elapsed / 1e9));
+            }
+        }
+        json.append("\n  ]\n}");
+        pool.shutdown();
+
+        System.out.println(json);
+        if (reportFile != null) {
+            try (Writer out = new FileWriter(reportFile)) {
+                out.write(json.toString());
+                out.write(System.lineSeparator());
+            }
+        }
+    }
+
+    static String report(int pairs, MemoryAI.Level level, Result r, long elapsedNanos) {
+        double mean = (double) r.sum / r.games;
+        double variance = Math.max(0, r.sumSquares / r.games - mean * mean);
+        int min = -1, max = 0;
+        for (int m = 0; m < r.histogram.length; m++) {
+            if (r.histogram[m] == 0) continue;
+            if (min < 0) min = m;
+            max = m;
+        }
+
+        StringBuilder histogram = new StringBuilder();
+        for (int m = Math.max(0, min); m <= max; m++) {
+            if (r.histogram[m] == 0) continue;
+            if (histogram.length() > 0) histogram.append(", ");
+            histogram.append('"').append(m).append("\": ").append(r.histogram[m]);
+        }
+
+        double seconds = elapsedNanos / 1e9;
+        return String.format(Locale.ROOT,
+                "    {%n"
+                + "      \"pairs\": %d,%n"
+                + "      \"level\": \"%s\",%n"
+                + "      \"games\": %d,%n"
+                + "      \"meanMoves\": %.4f,%n"
+                + "      \"stdDevMoves\": %.4f,%n"
+                + "      \"minMoves\": %d,%n"
+                + "      \"p50\": %d,%n"
+                + "      \"p90\": %d,%n"
+                + "      \"p99\": %d,%n"
+                + "      \"maxMoves\": %d,%n"
+                + "      \"seconds\": %.3f,%n"
+                + "      \"gamesPerSecond\": %.0f,%n"
+                + "      \"histogram\": {%s}%n"
+                + "    }",
+                pairs, level.name(), r.games, mean, Math.sqrt(variance), min,
+                percentile(r, 0.5), percentile(r, 0.9), percentile(r, 0.99), max,
+                seconds, r.games / seconds, histogram);
+    }
+
+    private static int percentile(Result r, double q) {
+        long target = (long) Math.ceil(q * r.games);
+        long seen = 0;
+        for (int m = 0; m < r.histogram.length; m++) {
+            seen += r.histogram[m];
+            if (seen >= target) return m;
+        }
+        return r.histogram.length - 1;
+    }
+}
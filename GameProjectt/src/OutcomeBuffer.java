@@ -0,0 +1,162 @@
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * OutcomeBuffer.java
+ * - Spin results drawn from SecureRandom ahead of time, so a lever pull
+ *   never waits on the strong RNG
+ * - A single "outcome-producer" thread keeps a bounded ring topped up; each
+ *   entry is the three reel stops encoded as one Paytable index
+ * - Single producer / single consumer (the EDT), lock free: the only shared
+ *   state is the head and tail counters
+ * - The producer sleeps while the ring is full and is woken once the ring
+ *   drops below half full
+ * - Counts depth, the low-water mark, refill rate and underruns (polls that
+ *   found the ring empty)
+ *
+ * Ring size: "arcade.outcomeBuffer" (rounded to a power of two, default 4096).
+ */
+public final class OutcomeBuffer {
+
+    private static OutcomeBuffer instance;
+
+    private final SlotConfig config;
+    private final SecureRandom random = new SecureRandom();
+    private final int[] ring;
+    private final int mask;
+    private final int lowWater;
+
+    private final AtomicLong head = new AtomicLong(); // next entry to read, written by the consumer
+    private final AtomicLong tail = new AtomicLong(); // next entry to write, written by the producer
+    private volatile boolean producerSleeping = false;
+    private Thread producer;
+
+    // metrics
+    private final AtomicLong underruns = new AtomicLong();
+    private volatile long minDepth = Long.MAX_VALUE;
+    private volatile long refillNanos = 0;   // producer time spent drawing
+
+    private OutcomeBuffer(SlotConfig config, int capacity) {
+        this.config = config;
+        int size = Integer.highestOneBit(Math.max(64, capacity));
+        this.ring = new int[size];
+        this.mask = size - 1;
+        this.lowWater = size / 2;
+    }
+
+    /** The shared buffer for the game's SlotConfig; starts its producer. */
+    public static synchronized OutcomeBuffer get() {
+        if (instance == null) {
+            instance = new OutcomeBuffer(SlotConfig.get(), Integer.getInteger("arcade.outcomeBuffer", 4096));
+            instance.startProducer();
+        }
+        return instance;
+    }
+
+    /** Fills the buffer in the background right away (called from ArcadeApp.main). */
+    public static void start() {
+        get();
+    }
+
+    private void startProducer() {
+        producer = new Thread(this::produce, "outcome-producer");
+        producer.setDaemon(true);
+        producer.setPriority(Thread.NORM_PRIORITY - 1);
+        producer.start();
+    }
+
+    // ===============================
+    // Producer
+    // ===============================
+
+    private void produce() {
+        while (true) {
+            long t = tail.get();
+            if (t - head.get() > mask) {
+                producerSleeping = true;
+                // re-check after publishing the flag, or a poll in between could be missed
+                if (tail.get() - head.get() > mask) {
+                    LockSupport.parkNanos(this, 1_000_000_000L);
+                }
+                producerSleeping = false;
+                continue;
+            }
+            long start = System.nanoTime();
+            ring[(int) t & mask] = draw();
+            refillNanos += System.nanoTime() - start;
+            tail.set(t + 1); // publishes the entry
+        }
+    }
+
+    /** One spin straight from the strong source. */
+    int draw() {
+        return config.spin(random.nextLong(), random.nextLong(),
+                random.nextLong(), random.nextLong(), random.nextLong());
+    }
+
+    // ===============================
+    // Consumer (one thread)
+    // ===============================
+
+    /**
+     * Takes the next precomputed spin, or returns -1 without blocking when the
+     * ring is empty (counted as an underrun).
+     */
+    public int poll() {
+        long h = head.get();
+        long depth = tail.get() - h;
+        if (depth == 0) {
+            underruns.incrementAndGet();
+            return -1;
+        }
+        int code = ring[(int) h & mask];
+        head.set(h + 1);
+        if (depth - 1 < minDepth) minDepth = depth - 1;
+        if (depth - 1 < lowWater && producerSleeping) {
+            LockSupport.unpark(producer);
+        }
+        return code;
+    }
+
+    // ===============================
+    // Metrics
+    // ===============================
+
+    public int capacity() {
+        return ring.length;
+    }
+
+    public long depth() {
+        return tail.get() - head.get();
+    }
+
+    public long getProduced() {
+        return tail.get();
+    }
+
+    public long getConsumed() {
+        return head.get();
+    }
+
+    public long getUnderruns() {
+        return underruns.get();
+    }
+
+    /** Lowest depth seen right after a poll (capacity if nothing was polled yet). */
+    public long getMinDepth() {
+        long min = minDepth;
+        return min == Long.MAX_VALUE ? ring.length : min;
+    }
+
+    /** Spins per second the producer draws while it is working. */
+    public double getRefillRate() {
+        long nanos = refillNanos;
+        return nanos == 0 ? 0 : tail.get() * 1e9 / nanos;
+    }
+
+    public String stats() {
+        return String.format("OutcomeBuffer[depth=%d/%d, minDepth=%d, produced=%d, consumed=%d, underruns=%d, refill=%.0f/s]",
+                depth(), capacity(), getMinDepth(), getProduced(), getConsumed(), getUnderruns(), getRefillRate());
+    }
+}
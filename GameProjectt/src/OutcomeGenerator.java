@@ -0,0 +1,14 @@
+/**
+ * OutcomeGenerator.java
+ * - Decides a whole slot spin in one call, at the moment the lever is pulled
+ * - The reel animation only plays back the SpinOutcome it returns
+ * - Implementations must be cheap enough to call on the EDT
+ */
+public interface OutcomeGenerator {
+
+    /** Draws the next spin of this session. */
+    SpinOutcome next();
+
+    /** Identifies the session (for audit records), e.g. its seed. */
+    String sessionId();
+}
@@ -0,0 +1,256 @@
+import java.util.BitSet;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Paytable.java
+ * - Pays for SpinandWin over a 3x3 window (row above, payline row, row below
+ *   of each reel) on several paylines
+ * - Also marks the rare combinations that win the progressive JackpotPool:
+ *   the jackpot symbol on every reel of one payline (wilds don't count)
+ * - Line wins count matching symbols from the leftmost reel: 2 or 3 of a kind
+ * - An optional wild symbol substitutes for any other and multiplies the
+ *   line win it takes part in
+ * - Everything is compiled at load time into one int per combination of
+ *   stops, indexed by s1 + L1 * (s2 + L2 * s3), so pay() is a single array read
+ *
+ * Keys in slot.properties:
+ *   paylines        = rows per reel, 0 top / 1 middle / 2 bottom, e.g. 111, 000, 012
+ *   pay.<symbol>    = count:credits, e.g. 2:10, 3:60
+ *   wild            = symbol that substitutes for the others (optional)
+ *   wild.multiplier = multiplier for line wins that use a wild (default 1)
+ *   jackpot.symbol  = symbol that wins the pool, three on a payline (optional)
+ */
+public final class Paytable {
+
+    public static final int ROWS = 3;
+    private static final int MAX_COMBINATIONS = 1 << 24; // 64 MB of ints
+
+    private final int[][] strips;
+    private final int[][] paylines;   // line -> reel -> row
+    private final int[][] pays;       // symbol -> count -> credits
+    private final int wild;           // symbol id or -1
+    private final int wildMultiplier;
+    private final int jackpotSymbol;  // symbol id or -1
+    private final int[] lookup;       // encoded stops -> total credits
+    private final BitSet jackpots;    // encoded stops -> wins the pool
+    private final int length1, length2;
+
+    Paytable(Properties p, Map<String, Integer> ids, int[][] strips) {
+        this.strips = strips;
+        this.length1 = strips[0].length;
+        this.length2 = strips[1].length;
+
+        String[] lines = p.getProperty("paylines", "111").trim().split("\\s*,\\s*");
+        paylines = new int[lines.length][];
+        for (int l = 0; l < lines.length; l++) {
+            String line = lines[l].trim();
+            if (line.length() != SlotConfig.REELS) {
+                throw new IllegalArgumentException("payline " + line + ": one row per reel expected");
+            }
+            paylines[l] = new int[SlotConfig.REELS];
+            for (int r = 0; r < SlotConfig.REELS; r++) {
+                int row = line.charAt(r) - '0';
+                if (row < 0 || row >= ROWS) {
+                    throw new IllegalArgumentException("payline " + line + ": rows are 0, 1 or 2");
+                }
+                paylines[l][r] = row;
+            }
+        }
+
+        pays = new int[ids.size()][SlotConfig.REELS + 1];
+        for (Map.Entry<String, Integer> e : ids.entrySet()) {
+            String value = p.getProperty("pay." + e.getKey());
+            if (value == null || value.trim().isEmpty()) continue;
+            for (String entry : value.trim().split("\\s*,\\s*")) {
+                // check the shape before parsing, so a typo is a config error, not a bare NumberFormatException
+                String[] kv = entry.split(":");
+                int count = kv.length == 2 ? parseCount(kv[0]) : -1;
+                int credits = kv.length == 2 ? parseCount(kv[1]) : -1;
+                if (count < 1 || count > SlotConfig.REELS || credits < 0) {
+                    throw new IllegalArgumentException("pay." + e.getKey() + ": bad entry " + entry
+                            + " (count:credits expected)");
+                }
+                pays[e.getValue()][count] = credits;
+            }
+        }
+
+        String wildName = p.getProperty("wild", "").trim();
+        if (wildName.isEmpty()) {
+            wild = -1;
+        } else {
+            Integer id = ids.get(wildName);
+            if (id == null) throw new IllegalArgumentException("wild: unknown symbol " + wildName);
+            wild = id;
+        }
+        String multiplier = p.getProperty("wild.multiplier", "1");
+        wildMultiplier = parseCount(multiplier);
+        if (wildMultiplier < 1) {
+            throw new IllegalArgumentException("wild.multiplier: bad value " + multiplier.trim()
+                    + " (positive whole number expected)");
+        }
+
+        String jackpotName = p.getProperty("jackpot.symbol", "").trim();
+        if (jackpotName.isEmpty()) {
+            jackpotSymbol = -1;
+        } else {
+            Integer id = ids.get(jackpotName);
+            if (id == null) throw new IllegalArgumentException("jackpot.symbol: unknown symbol " + jackpotName);
+            jackpotSymbol = id;
+        }
+
+        long combinations = (long) length1 * length2 * strips[2].length;
+        if (combinations > MAX_COMBINATIONS) {
+            throw new IllegalArgumentException("reel strips too long for a paytable lookup: " + combinations);
+        }
+        lookup = new int[(int) combinations];
+        jackpots = new BitSet((int) combinations);
+        for (int s3 = 0; s3 < strips[2].length; s3++) {
+            for (int s2 = 0; s2 < length2; s2++) {
+                for (int s1 = 0; s1 < length1; s1++) {
+                    int i = s1 + length1 * (s2 + length2 * s3);
+                    lookup[i] = evaluate(s1, s2, s3, null);
+                    if (hasJackpotLine(s1, s2, s3)) jackpots.set(i);
+                }
+            }
+        }
+    }
+
+    // ===============================
+    // Lookup (hot path)
+    // ===============================
+
+    /** Credits paid for the stops, summed over all paylines. */
+    public int pay(int stop1, int stop2, int stop3) {
+        return lookup[stop1 + length1 * (stop2 + length2 * stop3)];
+    }
+
+    /** Encodes three stops as one lookup index. */
+    public int index(int stop1, int stop2, int stop3) {
+        return stop1 + length1 * (stop2 + length2 * stop3);
+    }
+
+    public int payAt(int index) {
+        return lookup[index];
+    }
+
+    /** True if the stops win the progressive jackpot. */
+    public boolean isJackpot(int stop1, int stop2, int stop3) {
+        return jackpots.get(stop1 + length1 * (stop2 + length2 * stop3));
+    }
+
+    public boolean jackpotAt(int index) {
+        return jackpots.get(index);
+    }
+
+    /** Symbol id that wins the pool, or -1 if there is no jackpot. */
+    public int jackpotSymbol() {
+        return jackpotSymbol;
+    }
+
+    /** Stop of a reel in an index made by index(). */
+    public int stopOf(int index, int reel) {
+        switch (reel) {
+            case 0: return index % length1;
+            case 1: return (index / length1) % length2;
+            default: return index / length1 / length2;
+        }
+    }
+
+    public int size() {
+        return lookup.length;
+    }
+
+    // ===============================
+    // Slow path (compile time and UI)
+    // ===============================
+
+    public int lineCount() {
+        return paylines.length;
+    }
+
+    /** Row of a reel that a payline runs through. */
+    public int lineRow(int line, int reel) {
+        return paylines[line][reel];
+    }
+
+    /**
+     * Credits per payline for the stops; used once per spin to show which lines won.
+     */
+    public int[] lineWins(int stop1, int stop2, int stop3) {
+        int[] wins = new int[paylines.length];
+        evaluate(stop1, stop2, stop3, wins);
+        return wins;
+    }
+
+    /** Symbol a reel shows in a window row, the middle row being the stop itself. */
+    public int symbolInRow(int reel, int stop, int row) {
+        int length = strips[reel].length;
+        return strips[reel][Math.floorMod(stop + row - 1, length)];
+    }
+
+    private int evaluate(int s1, int s2, int s3, int[] perLine) {
+        int[] stops = { s1, s2, s3 };
+        int[] line = new int[SlotConfig.REELS];
+        int total = 0;
+        for (int l = 0; l < paylines.length; l++) {
+            for (int r = 0; r < line.length; r++) {
+                line[r] = symbolInRow(r, stops[r], paylines[l][r]);
+            }
+            int win = evaluateLine(line);
+            total += win;
+            if (perLine != null) perLine[l] = win;
+        }
+        return total;
+    }
+
+    // a non-negative number, or -1
+    private static int parseCount(String value) {
+        try {
+            return Math.max(-1, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private boolean hasJackpotLine(int s1, int s2, int s3) {
+        if (jackpotSymbol < 0) return false;
+        int[] stops = { s1, s2, s3 };
+        for (int[] payline : paylines) {
+            boolean all = true;
+            for (int r = 0; r < stops.length && all; r++) {
+                all = symbolInRow(r, stops[r], payline[r]) == jackpotSymbol;
+            }
+            if (all) return true;
+        }
+        return false;
+    }
+
+    // best of "symbol with wild substitutes" and "wilds on their own"
+    private int evaluateLine(int[] line) {
+        int target = -1;
+        for (int symbol : line) {
+            if (symbol != wild) {
+                target = symbol;
+                break;
+            }
+        }
+
+        int best = 0;
+        if (target >= 0) {
+            int count = 0;
+            boolean usedWild = false;
+            while (count < line.length && (line[count] == target || line[count] == wild)) {
+                usedWild |= line[count] == wild;
+                count++;
+            }
+            best = pays[target][count] * (usedWild ? wildMultiplier : 1);
+        }
+        if (wild >= 0) {
+            int wilds = 0;
+            while (wilds < line.length && line[wilds] == wild) wilds++;
+            best = Math.max(best, pays[wild][wilds]);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,182 @@
+import javax.swing.JComponent;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * ReelView.java
+ * - One slot reel: a window of ROWS symbols onto the reel's strip
+ * - The whole strip is pre-rendered once into a compatible image (with the
+ *   first rows repeated at the end), so any scroll position is a single blit
+ * - While spinning it is ticked by AnimationClock at FAST_FPS and repaints
+ *   only itself, and only when the scroll moved by at least a pixel
+ * - stopAt() eases the reel out onto a given stop; nothing is allocated per frame
+ *
+ * The middle row shows the stop itself, matching Paytable's window.
+ */
+public class ReelView extends JComponent implements AnimationClock.Listener {
+
+    private static final long serialVersionUID = 1L;
+
+    public interface Listener {
+        /** Called on the EDT when the reel has landed on its stop. */
+        void reelStopped(ReelView reel);
+    }
+
+    public static final int ROWS = Paytable.ROWS;
+
+    private static final double SPEED = 2.4;        // pixels per ms while spinning (~24 symbols/s)
+    private static final int MIN_EASE_CELLS = 3;
+    private static final Color BACKGROUND = new Color(16, 16, 24);
+
+    private final BufferedImage strip;
+    private final int cellHeight;
+    private final int stops;
+    private final int stripHeight;   // stops * cellHeight, without the repeated rows
+
+    // motion state, all primitives
+    private double offset;           // strip y at the top of the window
+    private int paintedOffset = -1;
+    private boolean spinning = false;
+    private boolean easing = false;
+    private long lastTick;
+    private long stopTime;           // when easing starts
+    private int targetStop;
+    private double easeFrom, easeDistance, easeMillis;
+
+    private Listener listener;
+
+    /**
+     * @param sprites sprite in the atlas for each stop of the strip, top to bottom
+     */
+    public ReelView(SpriteAtlas atlas, int[] sprites, int width, int cellHeight) {
+        this.cellHeight = cellHeight;
+        this.stops = sprites.length;
+        this.stripHeight = stops * cellHeight;
+
+        strip = ScaledImageCache.createCompatibleImage(width, (stops + ROWS) * cellHeight);
+        Graphics2D g = strip.createGraphics();
+        g.setColor(BACKGROUND);
+        g.fillRect(0, 0, strip.getWidth(), strip.getHeight());
+        for (int i = 0; i < stops + ROWS; i++) {
+            int sprite = sprites[i % stops];
+            atlas.draw(g, sprite, (width - atlas.width(sprite)) / 2,
+                    i * cellHeight + (cellHeight - atlas.height(sprite)) / 2);
+        }
+        g.dispose();
+
+        setOpaque(true);
+        setPreferredSize(new Dimension(width, ROWS * cellHeight));
+        showStop(0);
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    public boolean isSpinning() {
+        return spinning;
+    }
+
+    /** Jumps to a stop without animation. */
+    public void showStop(int stop) {
+        offset = topFor(stop);
+        repaintIfMoved();
+    }
+
+    /** Starts scrolling at full speed until stopAt() lands it. */
+    public void spin(long nowMillis) {
+        spinning = true;
+        easing = false;
+        stopTime = Long.MAX_VALUE;
+        lastTick = nowMillis;
+        AnimationClock.addFast(this);
+    }
+
+    /**
+     * Lands the reel on a stop: full speed until whenMillis, then an ease-out
+     * that starts at the spinning speed and ends exactly on the stop.
+     */
+    public void stopAt(int stop, long whenMillis) {
+        targetStop = stop;
+        stopTime = whenMillis;
+    }
+
+    @Override
+    public void tick(long nowMillis) {
+        if (!spinning) return;
+        long elapsed = Math.max(0, nowMillis - lastTick);
+        lastTick = nowMillis;
+
+        if (!easing && nowMillis >= stopTime) {
+            // symbols move down, so the strip offset decreases; add a turn if the
+            // stop is too close for the ease to read as a stop rather than a snap
+            double target = topFor(targetStop);
+            double distance = offset - target;
+            if (distance < 0) distance += stripHeight;
+            if (distance < MIN_EASE_CELLS * cellHeight) distance += stripHeight;
+            easeFrom = offset;
+            easeDistance = distance;
+            easeMillis = 3 * distance / SPEED; // cubic ease-out starts at 3 * d / T
+            easing = true;
+            stopTime = nowMillis;
+        }
+
+        if (easing) {
+            double t = Math.min(1.0, (nowMillis - stopTime) / easeMillis);
+            double u = 1 - t;
+            offset = wrap(easeFrom - easeDistance * (1 - u * u * u));
+            if (t >= 1.0) {
+                offset = topFor(targetStop);
+                spinning = false;
+                easing = false;
+                AnimationClock.remove(this);
+                repaintIfMoved();
+                if (listener != null) listener.reelStopped(this);
+                return;
+            }
+        } else {
+            offset = wrap(offset - SPEED * elapsed);
+        }
+        repaintIfMoved();
+    }
+
+    private double topFor(int stop) {
+        return wrap((double) (stop - 1) * cellHeight); // middle row shows the stop
+    }
+
+    private double wrap(double y) {
+        y %= stripHeight;
+        return y < 0 ? y + stripHeight : y;
+    }
+
+    private void repaintIfMoved() {
+        if ((int) offset != paintedOffset) repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        int y = (int) offset;
+        paintedOffset = y;
+        int w = getWidth(), h = getHeight();
+        int top = (h - ROWS * cellHeight) / 2;
+        int x = (w - strip.getWidth()) / 2;
+        if (top > 0 || x > 0) {
+            g.setColor(BACKGROUND);
+            g.fillRect(0, 0, w, h);
+        }
+        g.drawImage(strip,
+                x, top, x + strip.getWidth(), top + ROWS * cellHeight,
+                0, y, strip.getWidth(), y + ROWS * cellHeight,
+                null);
+    }
+
+    @Override
+    public void removeNotify() {
+        AnimationClock.remove(this);
+        spinning = false;
+        super.removeNotify();
+    }
+}
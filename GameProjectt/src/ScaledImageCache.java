@@ -0,0 +1,133 @@
+import java.awt.AlphaComposite;
+import java.awt.Component;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.ImageObserver;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * ScaledImageCache.java
+ * - Keeps images pre-scaled to the size of the panel that draws them
+ * - One entry per (asset, width, height); a resize simply asks for a new key
+ * - Sizes the AssetPack compiler already produced are copied, not rescaled
+ * - Animated GIFs are rescaled once per new GIF frame instead of on every repaint,
+ *   and that work is shared by every panel showing the asset at the same size
+ *
+ * Only touched from the event dispatch thread, apart from imageUpdate()
+ * callbacks which arrive on the image loader thread.
+ */
+public final class ScaledImageCache {
+
+    private static final long MAX_BYTES = 48L * 1024 * 1024;
+
+    private static final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private static long usedBytes = 0;
+
+    private ScaledImageCache() {
+    }
+
+    /**
+     * Returns the asset scaled to exactly w x h. The component is repainted
+     * whenever the underlying (possibly animated) image produces a new frame.
+     */
+    public static synchronized Image get(String path, int w, int h, Component owner) {
+        if (w <= 0 || h <= 0) return null;
+
+        String key = path + "@" + w + "x" + h;
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            BufferedImage packed = AssetPack.image(path, w, h);
+            Image source = packed != null ? packed : AssetCache.image(path);
+            if (source.getWidth(null) <= 0) return null; // missing asset
+            entry = new Entry(source, w, h);
+            entries.put(key, entry);
+            usedBytes += entry.bytes;
+            evictOverBudget(key);
+        }
+        entry.watch(owner);
+        return entry.current();
+    }
+
+    private static void evictOverBudget(String keep) {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (usedBytes > MAX_BYTES && it.hasNext()) {
+            Map.Entry<String, Entry> eldest = it.next();
+            if (eldest.getKey().equals(keep)) continue;
+            usedBytes -= eldest.getValue().bytes;
+            eldest.getValue().retire();
+            it.remove();
+        }
+    }
+
+    static BufferedImage createCompatibleImage(int w, int h) {
+        if (!GraphicsEnvironment.isHeadless()) {
+            GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDefaultConfiguration();
+            return gc.createCompatibleImage(w, h, Transparency.TRANSLUCENT);
+        }
+        return new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB_PRE);
+    }
+
+    // ------------------------------
+    // One pre-scaled rendition
+    // ------------------------------
+    private static final class Entry implements ImageObserver {
+        private final Image source;
+        private final BufferedImage scaled;
+        private final long bytes;
+        private final Map<Component, Boolean> watchers = new WeakHashMap<>();
+        private volatile boolean dirty = true;
+        private volatile boolean retired = false;
+
+        Entry(Image source, int w, int h) {
+            this.source = source;
+            this.scaled = createCompatibleImage(w, h);
+            this.bytes = (long) w * h * 4;
+        }
+
+        synchronized void watch(Component c) {
+            if (c != null) watchers.put(c, Boolean.TRUE);
+        }
+
+        void retire() {
+            retired = true;
+        }
+
+        Image current() {
+            if (dirty) {
+                dirty = false;
+                Graphics2D g = scaled.createGraphics();
+                g.setComposite(AlphaComposite.Src);
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                boolean complete = g.drawImage(source, 0, 0, scaled.getWidth(), scaled.getHeight(), this);
+                g.dispose();
+                if (!complete) dirty = true; // still loading, try again next paint
+            }
+            return scaled;
+        }
+
+        @Override
+        public boolean imageUpdate(Image img, int flags, int x, int y, int w, int h) {
+            if (retired) return false;
+            if ((flags & (FRAMEBITS | ALLBITS)) != 0) {
+                dirty = true;
+                Component[] targets;
+                synchronized (this) {
+                    targets = watchers.keySet().toArray(new Component[0]);
+                }
+                for (Component c : targets) {
+                    if (c.isShowing()) c.repaint();
+                }
+            }
+            return (flags & (ERROR | ABORT)) == 0;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+import javax.swing.JPanel;
+import java.awt.Graphics;
+import java.awt.Image;
+
+/**
+ * ScaledImagePanel.java
+ * - Panel that fills itself with an image stretched to its current size
+ * - Still images are drawn from ScaledImageCache, so they are only rescaled on resize
+ * - Animated GIFs are played by a GifPlayer from pre-decoded, pre-scaled frames
+ */
+public class ScaledImagePanel extends JPanel {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String imagePath;
+    private final GifPlayer player;
+
+    public ScaledImagePanel(String imagePath) {
+        this.imagePath = imagePath;
+        this.player = imagePath.toLowerCase().endsWith(".gif") ? new GifPlayer(imagePath, this) : null;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        if (player != null) {
+            player.paint(g, getWidth(), getHeight());
+            return;
+        }
+        Image img = ScaledImageCache.get(imagePath, getWidth(), getHeight(), this);
+        if (img != null)
+            g.drawImage(img, 0, 0, null);
+    }
+}
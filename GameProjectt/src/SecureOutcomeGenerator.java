@@ -0,0 +1,52 @@
+import java.security.SecureRandom;
+
+/**
+ * SecureOutcomeGenerator.java
+ * - Spins drawn from SecureRandom, taken from the precomputed OutcomeBuffer
+ * - If the buffer is ever empty the spin is drawn inline from the same
+ *   strong source: slower, never weaker (OutcomeBuffer counts these)
+ * - Not reproducible by design; use SeededOutcomeGenerator for simulations
+ *   and audits that need to replay spins
+ */
+public final class SecureOutcomeGenerator implements OutcomeGenerator {
+
+    private final SlotConfig config;
+    private final OutcomeBuffer buffer;
+    private final String sessionId;
+    private long spin = 0;
+
+    public SecureOutcomeGenerator(SlotConfig config, OutcomeBuffer buffer) {
+        this.config = config;
+        this.buffer = buffer;
+        this.sessionId = "secure-" + Long.toHexString(new SecureRandom().nextLong());
+    }
+
+    /**
+     * The generator the game uses: seeded when "arcade.slotSeed" is set
+     * (testing, audits), otherwise the strong buffered one.
+     */
+    public static OutcomeGenerator forSession(SlotConfig config) {
+        if (Long.getLong("arcade.slotSeed") != null) {
+            return new SeededOutcomeGenerator(SeededOutcomeGenerator.sessionSeed(), config);
+        }
+        return new SecureOutcomeGenerator(config, OutcomeBuffer.get());
+    }
+
+    @Override
+    public SpinOutcome next() {
+        int code = buffer.poll();
+        if (code < 0) code = buffer.draw();
+
+        Paytable paytable = config.getPaytable();
+        int[] stops = new int[SlotConfig.REELS];
+        for (int r = 0; r < stops.length; r++) {
+            stops[r] = paytable.stopOf(code, r);
+        }
+        return new SpinOutcome(sessionId, spin++, stops, paytable.payAt(code));
+    }
+
+    @Override
+    public String sessionId() {
+        return sessionId;
+    }
+}
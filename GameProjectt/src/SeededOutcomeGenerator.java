@@ -0,0 +1,85 @@
+import java.util.SplittableRandom;
+
+/**
+ * SeededOutcomeGenerator.java
+ * - Reproducible spin outcomes from a per-session 64-bit seed
+ * - Counter based: every random value is SplitMix64(seed, spin, draw), so
+ *   spin #n can be recomputed on its own for an audit without replaying
+ *   the spins before it
+ * - The draws of a spin go through SlotConfig.spin(), like every other
+ *   generator: half the spins (win.chance) are dealt three of a kind on
+ *   the payline, the rest stop on each reel's weighted strip; the
+ *   Paytable decides what that pays
+ *
+ * The game uses it when "arcade.slotSeed" is set (for tests and audits);
+ * otherwise it plays SecureOutcomeGenerator. SlotSimulator always uses it.
+ */
+public final class SeededOutcomeGenerator implements OutcomeGenerator {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final int DRAWS_PER_SPIN = 16;
+
+    private final long seed;
+    private final SlotConfig config;
+    private long spin = 0;
+
+    public SeededOutcomeGenerator(long seed, SlotConfig config) {
+        this.seed = seed;
+        this.config = config;
+    }
+
+    public static long sessionSeed() {
+        Long fixed = Long.getLong("arcade.slotSeed");
+        return fixed != null ? fixed : new SplittableRandom().nextLong() ^ System.nanoTime();
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    @Override
+    public String sessionId() {
+        return Long.toHexString(seed);
+    }
+
+    @Override
+    public SpinOutcome next() {
+        return outcome(spin++);
+    }
+
+    /**
+     * Recomputes any spin of this session.
+     */
+    public SpinOutcome outcome(long spinNumber) {
+        int code = index(spinNumber);
+        Paytable paytable = config.getPaytable();
+        int[] stops = new int[SlotConfig.REELS];
+        for (int r = 0; r < stops.length; r++) {
+            stops[r] = paytable.stopOf(code, r);
+        }
+        return new SpinOutcome(sessionId(), spinNumber, stops, paytable.payAt(code));
+    }
+
+    /**
+     * Paytable index of a spin without building a SpinOutcome; used by
+     * SlotSimulator, gives exactly the stops outcome() would.
+     */
+    public int index(long spinNumber) {
+        return config.spin(draw(spinNumber, 0), draw(spinNumber, 1),
+                draw(spinNumber, 2), draw(spinNumber, 3), draw(spinNumber, 4));
+    }
+
+    // ===============================
+    // Counter-based SplitMix64
+    // ===============================
+
+    long draw(long spinNumber, int k) {
+        return mix64(seed + (spinNumber * DRAWS_PER_SPIN + k + 1) * GOLDEN_GAMMA);
+    }
+
+    static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,283 @@
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * SlotConfig.java
+ * - Symbols and weighted reel strips for SpinandWin, from src/slot.properties
+ * - Every symbol image is listed once; strips refer to symbols by file name
+ * - One AliasTable per reel, so picking a reel stop is O(1) and allocation free
+ * - spin() keeps the game's 50/50 rule: with chance win.chance the payline
+ *   shows three of one symbol, otherwise every reel lands on its own stop
+ * - Pays come from a Paytable compiled from the same file
+ *
+ * The file can be replaced with "arcade.slotConfig"; if it cannot be found
+ * (file or classpath) the built-in strips below are used.
+ */
+public final class SlotConfig {
+
+    public static final int REELS = 3;
+
+    private static final String DEFAULTS =
+            "symbols = com1.png, com2.png, com3.png, com4.png, com5.png, com6.png, com7.png, com8.png, com9.png\n"
+            + "reel.1 = com1.png:3, com2.png:2, com3.png, com4.png, com5.png, com6.png, com7.png, com8.png, com9.png\n"
+            + "reel.2 = com1.png:3, com5.png, com8.png, com2.png:2, com6.png, com3.png, com9.png, com4.png, com7.png\n"
+            + "reel.3 = com1.png:3, com7.png, com4.png, com9.png, com2.png:2, com8.png, com5.png, com3.png, com6.png\n"
+            + "win.chance = 0.5\n"
+            + "bet = 30\n"
+            + "jackpot.symbol = com9.png\n"
+            + "jackpot.seed = 500\n"
+            + "jackpot.contribution = 0.05\n"
+            + "paylines = 111, 000, 222, 012, 210\n"
+            + "wild = com9.png\n"
+            + "wild.multiplier = 2\n"
+            + "pay.com1.png = 3:6\n"
+            + "pay.com2.png = 3:15\n"
+            + "pay.com3.png = 3:30\n"
+            + "pay.com4.png = 3:30\n"
+            + "pay.com5.png = 3:30\n"
+            + "pay.com6.png = 3:45\n"
+            + "pay.com7.png = 3:45\n"
+            + "pay.com8.png = 3:70\n"
+            + "pay.com9.png = 2:3, 3:200\n";
+
+    private static SlotConfig instance;
+
+    private final String[] symbolFiles;
+    private final int[][] strips;      // reel -> stop -> symbol id
+    private final int[][] weights;     // reel -> stop -> weight
+    private final AliasTable[] tables; // reel -> stop sampler
+    private final int[][][] symbolStops;       // reel -> symbol -> stops showing it
+    private final AliasTable[][] symbolTables; // reel -> symbol -> sampler over those stops, or null
+    private final int[] forcedSymbols;     // symbols a dealt win can show (never the jackpot)
+    private final AliasTable forcedTable;  // sampler over forcedSymbols, or null
+    private final double winChance;
+    private final int bet;
+    private final long jackpotSeedCentavos;
+    private final long contributionCentavos;
+    private final Paytable paytable;
+
+    private SlotConfig(Properties p) {
+        Map<String, Integer> ids = new LinkedHashMap<>();
+        for (String file : split(required(p, "symbols"))) {
+            if (ids.putIfAbsent(file, ids.size()) != null) {
+                throw new IllegalArgumentException("symbol listed twice: " + file);
+            }
+        }
+        symbolFiles = ids.keySet().toArray(new String[0]);
+
+        strips = new int[REELS][];
+        weights = new int[REELS][];
+        tables = new AliasTable[REELS];
+        for (int r = 0; r < REELS; r++) {
+            String[] stops = split(required(p, "reel." + (r + 1)));
+            strips[r] = new int[stops.length];
+            weights[r] = new int[stops.length];
+            for (int s = 0; s < stops.length; s++) {
+                String entry = stops[s];
+                int colon = entry.lastIndexOf(':');
+                String name = colon < 0 ? entry : entry.substring(0, colon).trim();
+                Integer id = ids.get(name);
+                if (id == null) {
+                    throw new IllegalArgumentException("reel." + (r + 1) + ": unknown symbol " + name);
+                }
+                strips[r][s] = id;
+                weights[r][s] = colon < 0 ? 1 : parseWeight(entry.substring(colon + 1));
+                if (weights[r][s] <= 0) {
+                    throw new IllegalArgumentException("slot config: bad weight " + entry + " on reel." + (r + 1)
+                            + " (positive whole number expected)");
+                }
+            }
+            tables[r] = new AliasTable(weights[r]);
+        }
+
+        symbolStops = new int[REELS][symbolFiles.length][];
+        symbolTables = new AliasTable[REELS][symbolFiles.length];
+        for (int r = 0; r < REELS; r++) {
+            for (int id = 0; id < symbolFiles.length; id++) {
+                int count = 0;
+                for (int symbol : strips[r]) if (symbol == id) count++;
+                int[] stops = new int[count];
+                int[] stopWeights = new int[count];
+                for (int s = 0, k = 0; s < strips[r].length; s++) {
+                    if (strips[r][s] != id) continue;
+                    stops[k] = s;
+                    stopWeights[k++] = weights[r][s];
+                }
+                symbolStops[r][id] = stops;
+                if (count > 0) symbolTables[r][id] = new AliasTable(stopWeights);
+            }
+        }
+        winChance = Double.parseDouble(p.getProperty("win.chance", "0").trim());
+        if (winChance < 0 || winChance > 1) {
+            throw new IllegalArgumentException("slot config: win.chance must be between 0 and 1");
+        }
+        bet = Integer.parseInt(required(p, "bet").trim());
+        jackpotSeedCentavos = Math.round(Double.parseDouble(p.getProperty("jackpot.seed", "0").trim()) * 100);
+        contributionCentavos = Math.round(bet * 100 * Double.parseDouble(p.getProperty("jackpot.contribution", "0").trim()));
+        paytable = new Paytable(p, ids, strips);
+
+        // a dealt win takes its symbol from reel 1's stops, leaving out the
+        // jackpot symbol: the pool only goes to the reels' own rare lines
+        int dealt = 0;
+        for (int symbol : strips[0]) if (symbol != paytable.jackpotSymbol()) dealt++;
+        forcedSymbols = new int[dealt];
+        int[] forcedWeights = new int[dealt];
+        for (int s = 0, k = 0; s < strips[0].length; s++) {
+            if (strips[0][s] == paytable.jackpotSymbol()) continue;
+            forcedSymbols[k] = strips[0][s];
+            forcedWeights[k++] = weights[0][s];
+        }
+        forcedTable = dealt > 0 ? new AliasTable(forcedWeights) : null;
+    }
+
+    // ===============================
+    // Loading
+    // ===============================
+
+    /** The game's configuration, loaded on first use. */
+    public static synchronized SlotConfig get() {
+        if (instance == null) {
+            instance = load(System.getProperty("arcade.slotConfig", "src/slot.properties"));
+        }
+        return instance;
+    }
+
+    public static SlotConfig load(String path) {
+        Properties p = new Properties();
+        try {
+            File file = new File(path);
+            InputStream in = file.isFile()
+                    ? new FileInputStream(file)
+                    : SlotConfig.class.getResourceAsStream("/" + file.getName());
+            try (Reader reader = in != null
+                    ? new InputStreamReader(in, StandardCharsets.UTF_8)
+                    : new StringReader(DEFAULTS)) {
+                p.load(reader);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read slot config " + path, e);
+        }
+        return new SlotConfig(p);
+    }
+
+    private static String required(Properties p, String key) {
+        String value = p.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            throw new IllegalArgumentException("slot config: missing " + key);
+        }
+        return value;
+    }
+
+    // the weight after "symbol:", or 0 if it is not a number
+    private static int parseWeight(String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static String[] split(String list) {
+        String[] parts = list.trim().split("\\s*,\\s*");
+        for (int i = 0; i < parts.length; i++) parts[i] = parts[i].trim();
+        return parts;
+    }
+
+    // ===============================
+    // Queries
+    // ===============================
+
+    public String[] getSymbolFiles() {
+        return symbolFiles.clone();
+    }
+
+    public int symbolCount() {
+        return symbolFiles.length;
+    }
+
+    public int stripLength(int reel) {
+        return strips[reel].length;
+    }
+
+    /** Symbol id shown by a reel at a stop. */
+    public int symbolAt(int reel, int stop) {
+        return strips[reel][stop];
+    }
+
+    public int weight(int reel, int stop) {
+        return weights[reel][stop];
+    }
+
+    public AliasTable table(int reel) {
+        return tables[reel];
+    }
+
+    /** Share of spins that are dealt three of a kind on the payline. */
+    public double getWinChance() {
+        return winChance;
+    }
+
+    public int getBet() {
+        return bet;
+    }
+
+    /** Most of an award JackpotPool holds back to restart the next pool with. */
+    public long getJackpotSeedCentavos() {
+        return jackpotSeedCentavos;
+    }
+
+    /** Slice of every spin's bet that feeds the progressive jackpot. */
+    public long getContributionCentavos() {
+        return contributionCentavos;
+    }
+
+    public Paytable getPaytable() {
+        return paytable;
+    }
+
+    /** True if the stops win the progressive JackpotPool. */
+    public boolean isJackpot(int stop1, int stop2, int stop3) {
+        return paytable.isJackpot(stop1, stop2, stop3);
+    }
+
+    /** Credits paid for a spin over all paylines (one lookup). */
+    public int payout(int stop1, int stop2, int stop3) {
+        return paytable.pay(stop1, stop2, stop3);
+    }
+
+    /** Weighted stop for a reel from 64 random bits. */
+    public int sampleStop(int reel, long random) {
+        return tables[reel].sample(random);
+    }
+
+    /**
+     * One spin from five independent 64-bit draws, as a Paytable index.
+     * With chance win.chance it is a win: a symbol other than the jackpot
+     * symbol is picked with reel 1's weights and every reel stops on one of
+     * its stops showing that symbol (a reel without it stops as usual).
+     * Otherwise each reel stops on its own weighted stop. Allocation free;
+     * every generator goes through here.
+     */
+    public int spin(long chance, long symbol, long random1, long random2, long random3) {
+        int forced = -1;
+        if (forcedTable != null && (chance >>> 11) * 0x1.0p-53 < winChance) {
+            forced = forcedSymbols[forcedTable.sample(symbol)];
+        }
+        return paytable.index(stop(0, forced, random1), stop(1, forced, random2), stop(2, forced, random3));
+    }
+
+    private int stop(int reel, int forced, long random) {
+        AliasTable showing = forced < 0 ? null : symbolTables[reel][forced];
+        if (showing == null) return tables[reel].sample(random);
+        return symbolStops[reel][forced][showing.sample(random)];
+    }
+}
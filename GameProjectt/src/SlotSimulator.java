@@ -0,0 +1,193 @@
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * SlotSimulator.java
+ * - Headless Monte Carlo run of SpinandWin's real outcome logic
+ *   (SlotConfig + SeededOutcomeGenerator), no Swing involved
+ * - Spins are split over a ForkJoinPool; since the generator is counter
+ *   based, spin i is the same value on whichever worker computes it, so
+ *   workers share no RNG state and a run is reproducible for any core count
+ * - Reports RTP, hit frequency, variance and 95% confidence intervals as JSON
+ * - The progressive JackpotPool is part of the return: jackpot spins are
+ *   collected, then replayed in order against one pool fed by every spin's
+ *   contribution, with JackpotPool's own carry rule. totalRtp is the base
+ *   game plus what the pool paid
+ *
+ * Usage: java SlotSimulator [spins] [seed] [threads] [reportFile]
+ * Defaults: 100000000 spins, seed 1, all cores, report on stdout only
+ */
+public class SlotSimulator {
+
+    private static final int LEAF_SPINS = 1 << 18;
+    private static final double Z95 = 1.959963984540054;
+
+    // per-range totals; combined up the fork/join tree
+    static final class Totals {
+        long spins;
+        long hits;
+        long paid;
+        long paidSquared;
+        long maxPay;
+        long[] jackpots = new long[0]; // spin numbers, in no particular order
+        int jackpotCount;
+
+        Totals add(Totals o) {
+            spins += o.spins;
+            hits += o.hits;
+            paid += o.paid;
+            paidSquared += o.paidSquared;
+            maxPay = Math.max(maxPay, o.maxPay);
+            for (int i = 0; i < o.jackpotCount; i++) addJackpot(o.jackpots[i]);
+            return this;
+        }
+
+        void addJackpot(long spin) {
+            if (jackpotCount == jackpots.length) {
+                jackpots = Arrays.copyOf(jackpots, Math.max(16, jackpotCount * 2));
+            }
+            jackpots[jackpotCount++] = spin;
+        }
+    }
+
+    // what the pool paid over the run, in centavos
+    static long replayPool(Totals t, long contributionCentavos, long seedCentavos) {
+        long[] spins = Arrays.copyOf(t.jackpots, t.jackpotCount);
+        Arrays.sort(spins);
+        long pool = 0, last = -1, paid = 0;
+        for (long spin : spins) {
+            pool += (spin - last) * contributionCentavos; // contributed at the lever, before the result
+            long carry = JackpotPool.carry(pool, seedCentavos);
+            paid += pool - carry;
+            pool = carry;
+            last = spin;
+        }
+        return paid;
+    }
+
+    static final class SpinRange extends RecursiveTask<Totals> {
+        private static final long serialVersionUID = 1L;
+
+        private final SlotConfig config;
+        private final SeededOutcomeGenerator generator;
+        private final long from, to;
+
+        SpinRange(SlotConfig config, SeededOutcomeGenerator generator, long from, long to) {
+            this.config = config;
+            this.generator = generator;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (to - from > LEAF_SPINS) {
+                long mid = (from + to) >>> 1;
+                SpinRange left = new SpinRange(config, generator, from, mid);
+                left.fork();
+                Totals right = new SpinRange(config, generator, mid, to).compute();
+                return right.add(left.join());
+            }
+            // hot loop: only local accumulators; a rare jackpot is recorded
+            Paytable paytable = config.getPaytable();
+            Totals t = new Totals();
+            long hits = 0, paid = 0, paidSquared = 0, maxPay = 0;
+            for (long spin = from; spin < to; spin++) {
+                int code = generator.index(spin);
+                int pay = paytable.payAt(code);
+                if (paytable.jackpotAt(code)) t.addJackpot(spin);
+                if (pay > 0) {
+                    hits++;
+                    paid += pay;
+                    paidSquared += (long) pay * pay;
+                    if (pay > maxPay) maxPay = pay;
+                }
+            }
+            t.spins = to - from;
+            t.hits = hits;
+            t.paid = paid;
+            t.paidSquared = paidSquared;
+            t.maxPay = maxPay;
+            return t;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        long spins = args.length > 0 ? Long.parseLong(args[0].replace("_", "")) : 100_000_000L;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1L;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        File reportFile = args.length > 3 ? new File(args[3]) : null;
+
+        SlotConfig config = SlotConfig.get();
+        SeededOutcomeGenerator generator = new SeededOutcomeGenerator(seed, config);
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        Totals totals = pool.invoke(new SpinRange(config, generator, 0, spins));
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+
+        String json = report(config, seed, threads, totals, elapsed);
+        System.out.println(json);
+        if (reportFile != null) {
+            try (Writer out = new FileWriter(reportFile)) {
+                out.write(json);
+                out.write(System.lineSeparator());
+            }
+        }
+    }
+
+    static String report(SlotConfig config, long seed, int threads, Totals t, long elapsedNanos) {
+        double n = t.spins;
+        double bet = config.getBet();
+
+        // return per spin in units of the bet
+        double rtp = t.paid / (n * bet);
+        long poolPaid = replayPool(t, config.getContributionCentavos(), config.getJackpotSeedCentavos());
+        double poolRtp = poolPaid / (n * bet * 100);
+        double meanSquare = t.paidSquared / (n * bet * bet);
+        double variance = Math.max(0, meanSquare - rtp * rtp);
+        double rtpHalfWidth = Z95 * Math.sqrt(variance / n);
+
+        double hitRate = t.hits / n;
+        double hitHalfWidth = Z95 * Math.sqrt(hitRate * (1 - hitRate) / n);
+
+        double seconds = elapsedNanos / 1e9;
+        return String.format(Locale.ROOT,
+                "{%n"
+                + "  \"spins\": %d,%n"
+                + "  \"seed\": %d,%n"
+                + "  \"threads\": %d,%n"
+                + "  \"bet\": %d,%n"
+                + "  \"totalBet\": %d,%n"
+                + "  \"totalPaid\": %d,%n"
+                + "  \"rtp\": %.6f,%n"
+                + "  \"rtpCi95\": [%.6f, %.6f],%n"
+                + "  \"jackpots\": %d,%n"
+                + "  \"jackpotFrequency\": %.8f,%n"
+                + "  \"poolPaid\": %.2f,%n"
+                + "  \"poolRtp\": %.6f,%n"
+                + "  \"totalRtp\": %.6f,%n"
+                + "  \"hits\": %d,%n"
+                + "  \"hitFrequency\": %.6f,%n"
+                + "  \"hitFrequencyCi95\": [%.6f, %.6f],%n"
+                + "  \"variance\": %.6f,%n"
+                + "  \"standardDeviation\": %.6f,%n"
+                + "  \"maxPay\": %d,%n"
+                + "  \"seconds\": %.3f,%n"
+                + "  \"spinsPerSecond\": %.0f%n"
+                + "}",
+                t.spins, seed, threads, config.getBet(), t.spins * config.getBet(), t.paid,
+                rtp, rtp - rtpHalfWidth, rtp + rtpHalfWidth,
+                t.jackpotCount, t.jackpotCount / n, poolPaid / 100.0, poolRtp, rtp + poolRtp,
+                t.hits, hitRate, hitRate - hitHalfWidth, hitRate + hitHalfWidth,
+                variance, Math.sqrt(variance), t.maxPay,
+                seconds, n / seconds);
+    }
+}
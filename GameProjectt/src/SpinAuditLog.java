@@ -0,0 +1,54 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * SpinAuditLog.java
+ * - Appends one line per slot spin: time, session seed, spin number, stops, result
+ * - Writes on a single "spin-audit" thread, so record() costs the EDT only a queue offer
+ * - Together with the session seed a record is enough to recompute the spin
+ *   (see SeededOutcomeGenerator.outcome)
+ *
+ * The file defaults to spin-audit.log in the working directory and can be
+ * moved with "arcade.spinAuditLog".
+ */
+public final class SpinAuditLog {
+
+    private static final Path FILE = Paths.get(System.getProperty("arcade.spinAuditLog", "spin-audit.log"));
+
+    private static final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "spin-audit");
+        t.setDaemon(true);
+        t.setPriority(Thread.NORM_PRIORITY - 1);
+        return t;
+    });
+
+    private static volatile boolean failed = false;
+
+    private SpinAuditLog() {
+    }
+
+    public static void record(SpinOutcome outcome) {
+        if (failed) return;
+        long now = System.currentTimeMillis();
+        writer.execute(() -> write(Instant.ofEpochMilli(now) + " " + outcome.toAuditRecord()));
+    }
+
+    private static void write(String line) {
+        try (BufferedWriter out = Files.newBufferedWriter(FILE, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            out.write(line);
+            out.newLine();
+        } catch (IOException e) {
+            failed = true; // read-only install: keep playing, stop auditing
+            System.err.println("Spin audit disabled: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * SpinOutcome.java
+ * - Immutable result of one slot spin: the stop of each reel and what it pays
+ * - toAuditRecord() is the line written to the spin audit log
+ */
+public final class SpinOutcome {
+
+    private final String sessionId;
+    private final long spinNumber;
+    private final int[] stops;
+    private final int payout;
+
+    public SpinOutcome(String sessionId, long spinNumber, int[] stops, int payout) {
+        this.sessionId = sessionId;
+        this.spinNumber = spinNumber;
+        this.stops = stops.clone();
+        this.payout = payout;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public long getSpinNumber() {
+        return spinNumber;
+    }
+
+    public int reelCount() {
+        return stops.length;
+    }
+
+    /** Stop index (into the reel's symbol list) that reel shows when it lands. */
+    public int stop(int reel) {
+        return stops[reel];
+    }
+
+    public boolean isWin() {
+        return payout > 0;
+    }
+
+    /** Credits won over all paylines. */
+    public int getPayout() {
+        return payout;
+    }
+
+    public String toAuditRecord() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("session=").append(sessionId)
+          .append(" spin=").append(spinNumber)
+          .append(" stops=");
+        for (int i = 0; i < stops.length; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(stops[i]);
+        }
+        sb.append(" pay=").append(payout);
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "SpinOutcome[" + toAuditRecord() + "]";
+    }
+}
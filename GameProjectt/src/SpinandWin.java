@@ -1,29 +1,47 @@
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.util.Random;
+import java.util.concurrent.CompletionException;
 
 public class SpinandWin extends JFrame {
 
     private static final long serialVersionUID = 1L;
 
+    static final int SYMBOL_SIZE = 100;
+    private static final long FIRST_STOP_MILLIS = 700;
+    private static final long NEXT_STOP_MILLIS = 350;
+
     
     private boolean reminderShown = false;
+    private int ticketsEarned = 0; // this visit, for the reminder
     
     private JPanel contentPane;
     private JPanel reelContainer;
-    private JLabel reel1, reel2, reel3;
+    private ReelView[] reels = new ReelView[SlotConfig.REELS];
     private JButton spinButton;
     private JLabel leverLabel;
     private JLabel alertLabel;
-    private ImageIcon[] symbols;
-    private Random random = new Random();
+    private JLabel balanceLabel;
+    private JLabel winLabel;
+    private JLabel poolLabel;
+    private final JackpotPool.Listener poolListener = centavos ->
+            poolLabel.setText("JACKPOT ₱" + String.format("%.2f", centavos / 100.0));
+    private SpriteAtlas atlas;
+    private SlotConfig config;
+    private int[] symbols; // symbol id -> sprite in the atlas
+    private OutcomeGenerator outcomes;
+    private SpinOutcome current; // spin whose reels are still moving (already paid)
+    private long currentPool;    // jackpot it won, in centavos
+    private boolean settling;    // its credits are still on their way to the wallet journal
+    private boolean unpaid;      // settle() failed: the reels stop, nothing is celebrated
+    private boolean paying;      // the next spin's debit is on its way to the wallet journal
     private Dashboard dashboard;  
-    private double balance;
+    private final long card;     // balance lives in Wallet
+    private boolean prepaidSpin = true; // the first spin was paid by Dashboard.launchGame
 
-    public SpinandWin(Dashboard dashboard, double balance) {
+    public SpinandWin(Dashboard dashboard, long card) {
         this.dashboard = dashboard;
-        this.balance = balance;
+        this.card = card;
 
         setTitle("Arcade Slot Machine");
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
@@ -32,17 +50,10 @@ public class SpinandWin extends JFrame {
 
         loadSymbols();
 
-        ImageIcon leverIcon = new ImageIcon("src/images/lever.gif");
-        ImageIcon alertIcon = new ImageIcon("src/images/alert.gif");
+        ImageIcon leverIcon = AssetCache.icon("src/images/lever.gif");
+        ImageIcon alertIcon = AssetCache.icon("src/images/alert.gif");
 
-        contentPane = new JPanel() {
-            private ImageIcon bg = new ImageIcon("src/images/bg.gif");
-            @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                g.drawImage(bg.getImage(), 0, 0, getWidth(), getHeight(), this);
-            }
-        };
+        contentPane = new ScaledImagePanel("src/images/bg.gif");
         contentPane.setLayout(null);
         setContentPane(contentPane);
 
@@ -50,8 +61,8 @@ public class SpinandWin extends JFrame {
         reelContainer.setBackground(new Color(0, 0, 0, 180));
         reelContainer.setBorder(BorderFactory.createLineBorder(Color.MAGENTA, 6, true));
         int containerWidth = 700;
-        int containerHeight = 180;
-        reelContainer.setBounds(100, 150, containerWidth, containerHeight);
+        int containerHeight = 320;
+        reelContainer.setBounds(100, 125, containerWidth, containerHeight);
         contentPane.add(reelContainer);
 
         alertLabel = new JLabel(alertIcon);
@@ -63,42 +74,72 @@ public class SpinandWin extends JFrame {
         contentPane.add(alertLabel);
 
         int reelWidth = 200;
-        int reelHeight = 140;
+        int reelHeight = ReelView.ROWS * SYMBOL_SIZE;
         int spacing = (containerWidth - 3 * reelWidth) / 4;
 
-        reel1 = createReelLabel(spacing, reelWidth, reelHeight);
-        reel2 = createReelLabel(spacing * 2 + reelWidth, reelWidth, reelHeight);
-        reel3 = createReelLabel(spacing * 3 + reelWidth * 2, reelWidth, reelHeight);
-        reelContainer.add(reel1);
-        reelContainer.add(reel2);
-        reelContainer.add(reel3);
+        for (int r = 0; r < reels.length; r++) {
+            int[] sprites = new int[config.stripLength(r)];
+            for (int stop = 0; stop < sprites.length; stop++) {
+                sprites[stop] = symbols[config.symbolAt(r, stop)];
+            }
+            reels[r] = new ReelView(atlas, sprites, reelWidth, SYMBOL_SIZE);
+            reels[r].setBounds(spacing * (r + 1) + reelWidth * r, (containerHeight - reelHeight) / 2,
+                    reelWidth, reelHeight);
+            reels[r].setListener(reel -> reelStopped());
+            reelContainer.add(reels[r]);
+        }
 
         leverLabel = new JLabel(leverIcon);
         leverLabel.setBounds(reelContainer.getX() + reelContainer.getWidth() - 20,
                 reelContainer.getY() - 125, 134, 330);
         contentPane.add(leverLabel);
 
+        balanceLabel = new JLabel();
+        balanceLabel.setFont(new Font("Monospaced", Font.BOLD, 18));
+        balanceLabel.setForeground(Color.YELLOW);
+        balanceLabel.setBounds(100, 455, 250, 50);
+        contentPane.add(balanceLabel);
+
+        winLabel = new JLabel();
+        winLabel.setFont(new Font("Monospaced", Font.BOLD, 18));
+        winLabel.setForeground(Color.YELLOW);
+        winLabel.setHorizontalAlignment(SwingConstants.RIGHT);
+        winLabel.setBounds(550, 455, 250, 50);
+        contentPane.add(winLabel);
+        showStatus(null);
+
+        poolLabel = new JLabel();
+        poolLabel.setFont(new Font("Monospaced", Font.BOLD, 22));
+        poolLabel.setForeground(Color.ORANGE);
+        poolLabel.setBounds(100, 60, 270, 40);
+        contentPane.add(poolLabel);
+        JackpotPool.get().addListener(poolListener);
+
         spinButton = new JButton("SPIN");
         spinButton.setFont(new Font("Monospaced", Font.BOLD, 28));
         spinButton.setBackground(new Color(255, 140, 0));
         spinButton.setForeground(Color.WHITE);
         spinButton.setFocusPainted(false);
         spinButton.setBorder(BorderFactory.createLineBorder(Color.YELLOW, 4, true));
-        spinButton.setBounds(360, 400, 180, 60);
+        spinButton.setBounds(360, 455, 180, 50);
         contentPane.add(spinButton);
 
-        spinButton.addActionListener(e -> spinWithLever());
+        spinButton.addActionListener(e -> {
+            AudioEngine.play("click");
+            spinWithLever();
+        });
         
         this.addWindowListener(new WindowAdapter() {
             @Override
             public void windowClosed(WindowEvent e) {
+                JackpotPool.get().removeListener(poolListener);
                 if (dashboard != null) {
-                    dashboard.updateBalance(balance);
+                    dashboard.refreshBalance();
                     dashboard.setGameOpen(false);
                     dashboard.setVisible(true);
                     
                     // Show the claim tickets reminder
-                    showClaimTicketsReminder(dashboard);
+                    showClaimTicketsReminder(dashboard, ticketsEarned);
                 }
             }
         });
@@ -106,61 +147,156 @@ public class SpinandWin extends JFrame {
     }
 
     private void loadSymbols() {
-        String[] files = {
-                "com1.png", "com1.png", "com1.png",
-                "com2.png", "com2.png",
-                "com3.png", "com4.png", "com5.png", "com6.png",
-                "com7.png", "com8.png", "com9.png"
-        };
-        symbols = new ImageIcon[files.length];
+        // scaled copies are already in AssetCache (AssetPreloader); pack them into one sheet
+        config = SlotConfig.get();
+        String[] files = config.getSymbolFiles();
+        String[] paths = new String[files.length];
         for (int i = 0; i < files.length; i++) {
-            ImageIcon icon = new ImageIcon("src/images/" + files[i]);
-            Image scaled = icon.getImage().getScaledInstance(140, 140, Image.SCALE_SMOOTH);
-            symbols[i] = new ImageIcon(scaled);
+            paths[i] = "src/images/" + files[i];
         }
+        atlas = SpriteAtlas.build(paths, SYMBOL_SIZE, SYMBOL_SIZE);
+        symbols = new int[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            symbols[i] = atlas.idOf(paths[i]);
+        }
+        outcomes = SecureOutcomeGenerator.forSession(config);
     }
 
-    private JLabel createReelLabel(int x, int w, int h) {
-        JLabel label = new JLabel(symbols[0]);
-        label.setOpaque(true);
-        label.setBackground(new Color(0, 0, 0, 200));
-        label.setBorder(BorderFactory.createLineBorder(Color.CYAN, 4, true));
-        label.setBounds(x, 20, w, h);
-        return label;
+    // the wallet waits for its fsync on its own thread, never here on the EDT
+    private void spinWithLever() {
+        if (current != null || paying) return; // one spin at a time (lever, Try Again)
+        if (prepaidSpin) {
+            prepaidSpin = false;
+            play();
+            return;
+        }
+        paying = true;
+        spinButton.setEnabled(false);
+        long bet = Wallet.centavos(config.getBet());
+        Wallet.submit(() -> Wallet.get().debit(card, bet)).whenComplete((paid, error) -> SwingUtilities.invokeLater(() -> {
+            paying = false;
+            if (error != null) {
+                spinButton.setEnabled(true);
+                walletFailed(error, "Card payments are unavailable right now.\nNothing was charged. Please ask the staff for help.");
+            } else if (!paid) {
+                spinButton.setEnabled(true);
+                AudioEngine.play("error");
+                JOptionPane.showMessageDialog(this,
+                        "Not enough balance for another spin (₱" + config.getBet() + ").",
+                        "Insufficient Balance", JOptionPane.WARNING_MESSAGE);
+            } else {
+                play(); // paid, so it is played even if the window was closed meanwhile
+            }
+        }));
     }
 
-    private void spinWithLever() {
+    private void play() {
+        JackpotPool.get().contribute(config.getContributionCentavos());
+        showStatus(null);
         spinButton.setEnabled(false);
 
-        boolean forceWin = random.nextBoolean(); // 50/50 chance
-
-        Timer reelTimer = new Timer(100, null);
-        final int[] count = {0};
-
-        reelTimer.addActionListener(e -> {
-            count[0]++;
-            if (count[0] > 15) {
-                if (forceWin) {
-                    ImageIcon win = symbols[random.nextInt(symbols.length)];
-                    reel1.setIcon(win);
-                    reel2.setIcon(win);
-                    reel3.setIcon(win);
-                    showJackpotDialog();
-                } else {
-                    reel1.setIcon(symbols[random.nextInt(symbols.length)]);
-                    reel2.setIcon(symbols[random.nextInt(symbols.length)]);
-                    reel3.setIcon(symbols[random.nextInt(symbols.length)]);
-                    showTryAgainDialog();
-                }
-                reelTimer.stop();
-                spinButton.setEnabled(true);
+        // the result is fixed and paid now; the reels below only play it
+        // back, so closing the window mid-spin loses nothing
+        SpinOutcome outcome = outcomes.next();
+        SpinAuditLog.record(outcome);
+        current = outcome;
+        currentPool = 0;
+        unpaid = false;
+        settling = true;
+        ticketsEarned += tickets(outcome);
+        Wallet.submit(() -> settle(outcome)).whenComplete((pool, error) -> SwingUtilities.invokeLater(() -> {
+            settling = false;
+            if (error != null) {
+                unpaid = true;
+                walletFailed(error, "Your win couldn't be paid to your card right now.\nPlease ask the staff for help.");
             } else {
-                reel1.setIcon(symbols[random.nextInt(symbols.length)]);
-                reel2.setIcon(symbols[random.nextInt(symbols.length)]);
-                reel3.setIcon(symbols[random.nextInt(symbols.length)]);
+                currentPool = pool;
             }
-        });
-        reelTimer.start();
+            reelStopped(); // the reels may have stopped first
+        }));
+
+        long now = System.currentTimeMillis();
+        for (int r = 0; r < reels.length; r++) {
+            reels[r].spin(now);
+            reels[r].stopAt(outcome.stop(r), now + FIRST_STOP_MILLIS + r * NEXT_STOP_MILLIS);
+        }
+    }
+
+    // shows the spin once its reels have stopped and its credits are on the card
+    private void reelStopped() {
+        for (ReelView reel : reels) {
+            if (reel.isSpinning()) return;
+        }
+        if (settling) return;
+        SpinOutcome outcome = current;
+        current = null;
+        if (outcome == null || !isDisplayable()) return;
+
+        showStatus(unpaid ? null : outcome);
+        spinButton.setEnabled(true);
+        if (unpaid) return;
+        if (config.isJackpot(outcome.stop(0), outcome.stop(1), outcome.stop(2))) {
+            AudioEngine.play("coin");
+            showJackpotDialog(outcome.getPayout(), currentPool / 100.0);
+        } else if (outcome.isWin()) {
+            AudioEngine.play("coin");
+        } else {
+            showTryAgainDialog();
+        }
+    }
+
+    // credits the win, the pool and the tickets of a spin, on the wallet's thread; returns the pool won
+    private long settle(SpinOutcome outcome) {
+        Wallet.get().credit(card, Wallet.centavos(outcome.getPayout()));
+        TicketLedger.get().award(card, TicketLedger.slotTickets(outcome.getPayout()), TicketLedger.SLOT);
+        if (!config.isJackpot(outcome.stop(0), outcome.stop(1), outcome.stop(2))) return 0;
+        long poolCentavos = JackpotPool.get().award();
+        try {
+            Wallet.get().credit(card, poolCentavos);
+        } catch (RuntimeException e) {
+            JackpotPool.get().contribute(poolCentavos); // not paid, so it goes back in the pool
+            throw e;
+        }
+        TicketLedger.get().award(card, TicketLedger.JACKPOT_TICKETS, TicketLedger.JACKPOT);
+        return poolCentavos;
+    }
+
+    // what settle() awards; the ledger coalesces a run of wins into one append
+    private int tickets(SpinOutcome outcome) {
+        int tickets = TicketLedger.slotTickets(outcome.getPayout());
+        if (config.isJackpot(outcome.stop(0), outcome.stop(1), outcome.stop(2))) tickets += TicketLedger.JACKPOT_TICKETS;
+        return tickets;
+    }
+
+    private void walletFailed(Throwable error, String message) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        System.err.println("Slot wallet transaction failed: " + cause.getMessage());
+        if (!isDisplayable()) return;
+        AudioEngine.play("error");
+        JOptionPane.showMessageDialog(this, message, "Error", JOptionPane.ERROR_MESSAGE);
+    }
+
+    private void showStatus(SpinOutcome outcome) {
+        balanceLabel.setText("Balance: " + Wallet.format(Wallet.get().balance(card)));
+        if (outcome != null && outcome.isWin()) {
+            winLabel.setText("<html><div style='text-align:right'>WIN ₱" + outcome.getPayout()
+                    + "<br>" + describeLines(outcome) + "</div></html>");
+        } else {
+            winLabel.setText("Bet: ₱" + config.getBet());
+        }
+    }
+
+    // once per spin, so the per-line breakdown can take the slow path
+    private String describeLines(SpinOutcome outcome) {
+        Paytable paytable = config.getPaytable();
+        int[] wins = paytable.lineWins(outcome.stop(0), outcome.stop(1), outcome.stop(2));
+        StringBuilder sb = new StringBuilder();
+        for (int line = 0; line < wins.length; line++) {
+            if (wins[line] == 0) continue;
+            if (sb.length() > 0) sb.append(", ");
+            sb.append("line ").append(line + 1);
+        }
+        return sb.toString();
     }
 
     private void showTryAgainDialog() {
@@ -169,7 +305,7 @@ public class SpinandWin extends JFrame {
         tryFrame.setResizable(false);
         tryFrame.setLocationRelativeTo(this);
 
-        JLabel gifLabel = new JLabel(new ImageIcon("src/images/try.gif"));
+        JLabel gifLabel = new JLabel(AssetCache.icon("src/images/try.gif"));
         gifLabel.setHorizontalAlignment(SwingConstants.CENTER);
         tryFrame.add(gifLabel, BorderLayout.CENTER);
 
@@ -194,18 +330,19 @@ public class SpinandWin extends JFrame {
         tryFrame.setVisible(true);
     }
 
-    private void showJackpotDialog() {
+    private void showJackpotDialog(int payout, double pool) {
         JFrame jackpotFrame = new JFrame("JACKPOT!");
         jackpotFrame.setSize(400, 350);
         jackpotFrame.setResizable(false);
         jackpotFrame.setLocationRelativeTo(this);
         jackpotFrame.setLayout(new BorderLayout());
 
-        JLabel gifLabel = new JLabel(new ImageIcon("src/images/jackpot.gif"));
+        JLabel gifLabel = new JLabel(AssetCache.icon("src/images/jackpot.gif"));
         gifLabel.setHorizontalAlignment(SwingConstants.CENTER);
         jackpotFrame.add(gifLabel, BorderLayout.CENTER);
 
-        JLabel msgLabel = new JLabel("<html><center>All 3 Objects Matched!<br>Congratulations!<br>Returning to dashboard...</center></html>");
+        JLabel msgLabel = new JLabel("<html><center>You won ₱" + payout
+                + " + the ₱" + String.format("%.2f", pool) + " jackpot!<br>Congratulations!<br>Returning to dashboard...</center></html>");
         msgLabel.setHorizontalAlignment(SwingConstants.CENTER);
         msgLabel.setFont(new Font("Arial", Font.BOLD, 16));
         jackpotFrame.add(msgLabel, BorderLayout.SOUTH);
@@ -218,7 +355,7 @@ public class SpinandWin extends JFrame {
         }).start();
     }
     
-    private void showClaimTicketsReminder(JFrame parent) {
+    private void showClaimTicketsReminder(JFrame parent, int tickets) {
         if (reminderShown) return; // Prevent multiple popups
         reminderShown = true;
 
@@ -243,17 +380,21 @@ public class SpinandWin extends JFrame {
         mainPanel.setLayout(new BorderLayout());
         mainPanel.setBorder(BorderFactory.createLineBorder(Color.YELLOW, 4, true));
 
-        ImageIcon logoIcon = new ImageIcon("src/images/timezone.png");
+        ImageIcon logoIcon = AssetCache.icon("src/images/timezone.png");
         JLabel logoLabel = new JLabel(logoIcon);
         logoLabel.setHorizontalAlignment(SwingConstants.CENTER);
         logoLabel.setPreferredSize(new Dimension(350, 150));
         mainPanel.add(logoLabel, BorderLayout.NORTH);
 
-        JLabel message = new JLabel("<html><center>🎉 Don't forget to claim your tickets! 🎉</center></html>");
+        JLabel message = new JLabel("<html><center>🎉 Don't forget to claim your " + tickets + " tickets! 🎉</center></html>");
         message.setFont(new Font("Monospaced", Font.BOLD, 16));
         message.setForeground(Color.WHITE);
         message.setHorizontalAlignment(SwingConstants.CENTER);
         mainPanel.add(message, BorderLayout.CENTER);
+        // the card total comes from the ledger's writer thread, not the EDT
+        TicketLedger.get().balance(card).thenAccept(total -> SwingUtilities.invokeLater(() -> message.setText(
+                "<html><center>🎉 Don't forget to claim your " + tickets + " tickets! 🎉<br>Card total: "
+                + total + "</center></html>")));
 
         JButton okBtn = new JButton("CONTINUE PLAYING");
         okBtn.setFont(new Font("Monospaced", Font.BOLD, 14));
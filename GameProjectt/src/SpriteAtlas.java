@@ -0,0 +1,94 @@
+import javax.swing.ImageIcon;
+import java.awt.AlphaComposite;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * SpriteAtlas.java
+ * - Packs a game's sprites (slot symbols, card faces) into one sheet
+ * - The sheet is a compatible image, so Java2D can keep it accelerated
+ * - Each sprite is drawn with a single sub-rectangle drawImage call;
+ *   ReelView and BoardView paint their cells this way, so a reel tick or
+ *   card flip is a repaint, not a relayout
+ */
+public final class SpriteAtlas {
+
+    private final BufferedImage sheet;
+    private final int[] sx, sy, sw, sh;
+    private final Map<String, Integer> ids;
+
+    private SpriteAtlas(BufferedImage sheet, int[] sx, int[] sy, int[] sw, int[] sh, Map<String, Integer> ids) {
+        this.sheet = sheet;
+        this.sx = sx;
+        this.sy = sy;
+        this.sw = sw;
+        this.sh = sh;
+        this.ids = ids;
+    }
+
+    /**
+     * Builds an atlas from image files, each scaled to cellW x cellH. Files
+     * listed more than once share one sprite. Sprites are laid out in rows
+     * on a roughly square sheet.
+     */
+    public static SpriteAtlas build(String[] paths, int cellW, int cellH) {
+        Map<String, Integer> ids = new LinkedHashMap<>();
+        for (String path : paths) {
+            ids.putIfAbsent(path, ids.size());
+        }
+        int count = ids.size();
+        int columns = Math.max(1, (int) Math.ceil(Math.sqrt(count)));
+        int rows = Math.max(1, (count + columns - 1) / columns);
+
+        BufferedImage sheet = ScaledImageCache.createCompatibleImage(columns * cellW, rows * cellH);
+        int[] sx = new int[count], sy = new int[count], sw = new int[count], sh = new int[count];
+
+        Graphics2D g = sheet.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        for (Map.Entry<String, Integer> e : ids.entrySet()) {
+            int id = e.getValue();
+            sx[id] = (id % columns) * cellW;
+            sy[id] = (id / columns) * cellH;
+            sw[id] = cellW;
+            sh[id] = cellH;
+            // scaled copies are normally already in AssetCache thanks to AssetPreloader
+            ImageIcon icon = AssetCache.scaledIcon(e.getKey(), cellW, cellH);
+            if (icon.getIconWidth() > 0) {
+                g.drawImage(icon.getImage(), sx[id], sy[id], null);
+            }
+        }
+        g.dispose();
+        return new SpriteAtlas(sheet, sx, sy, sw, sh, ids);
+    }
+
+    public int spriteCount() {
+        return sx.length;
+    }
+
+    /** Sprite id of a path passed to build(), or -1. */
+    public int idOf(String path) {
+        Integer id = ids.get(path);
+        return id == null ? -1 : id;
+    }
+
+    public int width(int sprite) {
+        return sw[sprite];
+    }
+
+    public int height(int sprite) {
+        return sh[sprite];
+    }
+
+    /**
+     * Blits one sprite with its top-left corner at (x, y).
+     */
+    public void draw(Graphics g, int sprite, int x, int y) {
+        g.drawImage(sheet,
+                x, y, x + sw[sprite], y + sh[sprite],
+                sx[sprite], sy[sprite], sx[sprite] + sw[sprite], sy[sprite] + sh[sprite],
+                null);
+    }
+}
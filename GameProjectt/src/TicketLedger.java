@@ -0,0 +1,343 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.CRC32;
+
+/**
+ * TicketLedger.java
+ * - Prize tickets per card: games award them, the counter redeems them
+ * - Every change goes on a queue and one "ticket-ledger" thread applies
+ *   them in order. It takes everything queued at once and coalesces it:
+ *   all awards to one card from one game in that batch become a single
+ *   record, and the whole batch is one write and one fsync. A burst of
+ *   awards (a pair per flip, a win per spin) costs one append
+ * - Balances are served from an in-memory cache the writer keeps of what
+ *   is on disk: a batch reaches it only after its fsync. Nothing here
+ *   makes the caller wait. award() only queues; redeem() and balance()
+ *   return futures the writer completes, so the EDT never touches the disk
+ * - If the log can't be opened or a write fails, the ledger stops: later
+ *   awards are dropped and every redeem() and balance() future (the
+ *   failed batch's too) completes exceptionally
+ * - The log is replayed into the cache on the writer thread, before the
+ *   first queued change, so early awards are not lost or reordered
+ *
+ * Record: card long, delta long (tickets, negative for a redemption),
+ * sequence long, source int, crc int; behind a 16-byte header. A torn tail
+ * from a crash is cut off on replay, like WalletJournal.
+ *
+ * The log is "tickets.ledger", replaceable with "arcade.ticketLedger".
+ */
+public final class TicketLedger {
+
+    /** Where tickets came from (or went), one per record. */
+    public static final int MEMORY = 1;
+    public static final int HANGMAN = 2;
+    public static final int SLOT = 3;
+    public static final int JACKPOT = 4;
+    public static final int REDEEMED = 5;
+    static final int SOURCES = 6;
+
+    /** Tickets per jackpot, on top of the win. */
+    public static final int JACKPOT_TICKETS = 500;
+
+    /** Most a memory game entry earns for the pairs found, and again for the move bonus. */
+    public static final int MEMORY_TICKETS = 5;
+
+    static final int RECORD_BYTES = 32;
+    static final int HEADER_BYTES = 16;
+    private static final long MAGIC = 0x4152435449434B54L; // "ARCTICKT"
+    private static final int VERSION = 1;
+
+    private static TicketLedger instance;
+
+    private final Path path;
+    private final LinkedBlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+    private final ConcurrentHashMap<Long, Long> balances = new ConcurrentHashMap<>();
+    private final Thread writer;
+    private volatile boolean loaded = false;
+
+    // written by the writer thread only
+    private FileChannel channel;
+    private long nextSequence = 1;
+    private volatile long appends, records, requests;
+    private volatile IOException failure;
+
+    /** One queued change or query; the writer completes the future. */
+    private static final class Request {
+        final long card;
+        final long delta;    // > 0 award, < 0 redeem, 0 balance query
+        final int source;
+        final CompletableFuture<Long> done;
+
+        Request(long card, long delta, int source, CompletableFuture<Long> done) {
+            this.card = card;
+            this.delta = delta;
+            this.source = source;
+            this.done = done;
+        }
+    }
+
+    TicketLedger(String path) {
+        this.path = Paths.get(path);
+        writer = new Thread(this::writeLoop, "ticket-ledger");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /** The ledger; opening it is queued too, so this never waits on the disk. */
+    public static synchronized TicketLedger get() {
+        if (instance == null) {
+            instance = new TicketLedger(System.getProperty("arcade.ticketLedger", "tickets.ledger"));
+        }
+        return instance;
+    }
+
+    // ===============================
+    // Requests (never block)
+    // ===============================
+
+    /** Queues an award; zero or negative amounts are ignored. */
+    public void award(long card, int tickets, int source) {
+        if (tickets <= 0) return;
+        if (source <= 0 || source >= SOURCES || source == REDEEMED) {
+            throw new IllegalArgumentException("bad ticket source: " + source);
+        }
+        queue.add(new Request(card, tickets, source, null));
+    }
+
+    /**
+     * Takes tickets off a card if it has enough. The future gives the
+     * balance left, or -1 if the card has too few (nothing is taken); it
+     * completes once the redemption is on disk, or exceptionally if the
+     * ledger has failed (nothing is taken).
+     */
+    public CompletableFuture<Long> redeem(long card, long tickets) {
+        if (tickets <= 0) throw new IllegalArgumentException("bad redemption: " + tickets);
+        CompletableFuture<Long> done = new CompletableFuture<>();
+        queue.add(new Request(card, -tickets, REDEEMED, done));
+        return done;
+    }
+
+    /** The card's balance after everything queued before this call; exceptional if the ledger has failed. */
+    public CompletableFuture<Long> balance(long card) {
+        CompletableFuture<Long> done = new CompletableFuture<>();
+        queue.add(new Request(card, 0, 0, done));
+        return done;
+    }
+
+    /** The balance on disk right now (0 until the log is replayed); for labels. */
+    public long cachedBalance(long card) {
+        return balances.getOrDefault(card, 0L);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    // ===============================
+    // Writer thread
+    // ===============================
+
+    private void writeLoop() {
+        try {
+            open();
+        } catch (IOException e) {
+            failure = e;
+            System.err.println("Ticket ledger " + path + " not opened, tickets are not saved: " + e.getMessage());
+        }
+        loaded = true;
+
+        List<Request> batch = new ArrayList<>();
+        Map<Long, long[]> coalesced = new HashMap<>();
+        Map<Long, Long> staged = new HashMap<>();   // balances this batch leads to
+        long[] answers = new long[0];
+        ByteBuffer out = ByteBuffer.allocate(RECORD_BYTES * 64);
+        CRC32 crc = new CRC32();
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch);
+            if (answers.length < batch.size()) answers = new long[Math.max(batch.size(), answers.length * 2)];
+
+            if (failure != null) {
+                // the ledger is down: nothing is applied, so the cache stays what is on disk
+                IOException down = new IOException("ticket ledger failed", failure);
+                for (Request r : batch) {
+                    if (r.done != null) r.done.completeExceptionally(down);
+                }
+                requests += batch.size();
+                batch.clear();
+                continue;
+            }
+
+            // apply in order to a copy; sum the deltas per card and source
+            for (int i = 0; i < batch.size(); i++) {
+                Request r = batch.get(i);
+                long balance = staged.containsKey(r.card) ? staged.get(r.card) : balances.getOrDefault(r.card, 0L);
+                if (r.delta == 0) {
+                    answers[i] = balance;
+                    continue;
+                }
+                if (balance + r.delta < 0) {
+                    answers[i] = -1; // not enough tickets
+                    continue;
+                }
+                staged.put(r.card, balance + r.delta);
+                answers[i] = balance + r.delta;
+                coalesced.computeIfAbsent(r.card, c -> new long[SOURCES])[r.source] += r.delta;
+            }
+
+            // one record per card and source, one write, one fsync
+            int count = 0;
+            out.clear();
+            for (Map.Entry<Long, long[]> e : coalesced.entrySet()) {
+                long[] deltas = e.getValue();
+                for (int source = 1; source < SOURCES; source++) {
+                    if (deltas[source] == 0) continue;
+                    if (out.remaining() < RECORD_BYTES) {
+                        ByteBuffer grown = ByteBuffer.allocate(out.capacity() * 2);
+                        out.flip();
+                        grown.put(out);
+                        out = grown;
+                    }
+                    int start = out.position();
+                    out.putLong(e.getKey()).putLong(deltas[source]).putLong(nextSequence++).putInt(source);
+                    crc.reset();
+                    crc.update(out.array(), start, RECORD_BYTES - 4);
+                    out.putInt((int) crc.getValue());
+                    count++;
+                }
+            }
+            if (count > 0) {
+                try {
+                    out.flip();
+                    while (out.hasRemaining()) channel.write(out);
+                    channel.force(false);
+                    appends++;
+                    records += count;
+                } catch (IOException e) {
+                    failure = e;
+                    System.err.println("Ticket ledger write failed, tickets are not saved: " + e.getMessage());
+                }
+            }
+            requests += batch.size();
+
+            // only a batch that is on disk reaches the cache and the callers
+            if (failure == null) {
+                balances.putAll(staged);
+                for (int i = 0; i < batch.size(); i++) {
+                    Request r = batch.get(i);
+                    if (r.done != null) r.done.complete(answers[i]);
+                }
+            } else {
+                IOException down = new IOException("ticket ledger failed", failure);
+                for (Request r : batch) {
+                    if (r.done != null) r.done.completeExceptionally(down);
+                }
+            }
+            batch.clear();
+            coalesced.clear();
+            staged.clear();
+        }
+    }
+
+    private void open() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        if (size < HEADER_BYTES) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putLong(MAGIC).putInt(VERSION).putInt(RECORD_BYTES).flip();
+            channel.truncate(0);
+            channel.write(header, 0);
+            channel.force(true);
+            size = HEADER_BYTES;
+        }
+        long end = replay(size);
+        if (end < size) channel.truncate(end); // drop a torn tail
+        channel.position(end);
+    }
+
+    private long replay(long size) throws IOException {
+        if (size > Integer.MAX_VALUE) throw new IOException("ticket ledger larger than 2 GB");
+        MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        if (map.getLong(0) != MAGIC || map.getInt(8) != VERSION || map.getInt(12) != RECORD_BYTES) {
+            throw new IOException("not a ticket ledger (or an unsupported version)");
+        }
+        CRC32 crc = new CRC32();
+        byte[] record = new byte[RECORD_BYTES];
+        ByteBuffer r = ByteBuffer.wrap(record);
+        int pos = HEADER_BYTES;
+        while (pos + RECORD_BYTES <= size) {
+            map.get(pos, record);
+            crc.reset();
+            crc.update(record, 0, RECORD_BYTES - 4);
+            if ((int) crc.getValue() != r.getInt(RECORD_BYTES - 4) || r.getLong(16) != nextSequence) break;
+            balances.merge(r.getLong(0), r.getLong(8), Long::sum);
+            nextSequence++;
+            pos += RECORD_BYTES;
+        }
+        return pos;
+    }
+
+    // ===============================
+    // Stats
+    // ===============================
+
+    /** Batches written (one write + fsync each). */
+    public long getAppends() {
+        return appends;
+    }
+
+    /** Records written, after coalescing. */
+    public long getRecords() {
+        return records;
+    }
+
+    /** Awards, redemptions and queries handled. */
+    public long getRequests() {
+        return requests;
+    }
+
+    // ===============================
+    // Ticket rules
+    // ===============================
+
+    /**
+     * Memory game, once per paid entry: up to MEMORY_TICKETS for the share
+     * of the pairs the player found, plus up to MEMORY_TICKETS for the
+     * moves under twice the pair count (a perfect game earns all of it).
+     * Both are shares of the board, so every board size pays the same for
+     * the same fee; a Classic board is a ticket per pair as before.
+     * Against the CPU the bonus only counts if the player won.
+     */
+    public static int memoryTickets(int playerPairs, int moves, int pairs, boolean bonus) {
+        if (pairs <= 0) return 0;
+        long found = (long) MEMORY_TICKETS * Math.max(0, playerPairs) / pairs;
+        long extra = bonus ? (long) MEMORY_TICKETS * Math.max(0, 2 * pairs - moves) / pairs : 0;
+        return (int) (found + extra);
+    }
+
+    /** Hangman, once per paid entry: a ticket per 10 points plus 5 for a win; a loss earns none. */
+    public static int hangmanTickets(int score, boolean won) {
+        return won ? Math.max(0, score) / 10 + 5 : 0;
+    }
+
+    /** Slot: a ticket per ₱10 won. */
+    public static int slotTickets(int payoutPesos) {
+        return Math.max(0, payoutPesos) / 10;
+    }
+}
@@ -0,0 +1,101 @@
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * TimeSessionBenchmark.java
+ * - Runs the TimingWheel the way TimeSessions does (an expiry and a
+ *   "5 minutes left" warning per session, one tick per second) but on
+ *   simulated time, so an hour of ticks takes well under a second
+ * - Sessions are always running: each one that expires is replaced by a
+ *   new pass, so the count stays fixed while the hour goes by
+ * - For every session count it reports the cost per tick, the cost per
+ *   timeout fired and the timeouts looked at without firing, next to a
+ *   scan of every session each tick. The wheel's cost per tick follows
+ *   what fires in it (more sessions, more expiries per second); its cost
+ *   per timeout stays flat and it looks at nothing else. The scan's cost
+ *   follows the number of sessions
+ *
+ * Usage: java TimeSessionBenchmark [sessions,...] [ticks]
+ * Defaults: 1000,10000,100000 sessions, 3600 ticks (one hour)
+ */
+public class TimeSessionBenchmark {
+
+    public static void main(String[] args) {
+        String[] counts = (args.length > 0 ? args[0] : "1000,10000,100000").split(",");
+        int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 3600;
+
+        run(1000, ticks); // warm-up
+        StringBuilder json = new StringBuilder("[\n");
+        for (int i = 0; i < counts.length; i++) {
+            json.append(run(Integer.parseInt(counts[i].trim()), ticks));
+            json.append(i + 1 < counts.length ? ",\n" : "\n");
+        }
+        json.append("]");
+        System.out.println(json);
+    }
+
+    private static String run(int sessions, int ticks) {
+        SplittableRandom random = new SplittableRandom(sessions);
+        TimingWheel wheel = new TimingWheel(TimeSessions.WHEEL_SLOTS);
+        long[] counters = new long[2]; // warnings, expiries
+        long warnTicks = TimeSessions.WARN_MINUTES * 60L;
+
+        // the naive alternative: every session's end in an array, scanned each tick
+        long[] ends = new long[sessions];
+
+        for (int s = 0; s < sessions; s++) {
+            long length = passSeconds(random);
+            long left = 1 + random.nextLong(length); // already part-way through
+            ends[s] = left;
+            schedule(wheel, left, warnTicks, random, counters);
+        }
+
+        long visitedBefore = wheel.getVisited();
+        long fired = 0;
+        long t0 = System.nanoTime();
+        for (int t = 0; t < ticks; t++) {
+            fired += wheel.advance();
+        }
+        long wheelTotal = System.nanoTime() - t0;
+        long idleVisits = wheel.getVisited() - visitedBefore - fired;
+
+        // the same hour as a scan, replacing expired sessions with passes too
+        long scanned = 0, scanFired = 0;
+        long t1 = System.nanoTime();
+        for (long now = 1; now <= ticks; now++) {
+            for (int s = 0; s < ends.length; s++) {
+                scanned++;
+                if (ends[s] == now) {
+                    ends[s] = now + 60L * TimeSessions.PASSES[(int) (now + s) % TimeSessions.PASSES.length][0];
+                    scanFired++;
+                }
+            }
+        }
+        double scanNanos = (System.nanoTime() - t1) / (double) ticks;
+
+        return String.format(Locale.ROOT,
+                "  {\"sessions\": %d, \"ticks\": %d, \"warnings\": %d, \"expiries\": %d,"
+                + " \"wheelNanosPerTick\": %.0f, \"wheelFiredPerTick\": %.1f, \"wheelNanosPerTimeout\": %.0f,"
+                + " \"wheelIdleVisits\": %d, \"scanNanosPerTick\": %.0f, \"scanVisitedPerTick\": %.0f,"
+                + " \"scanExpiries\": %d}",
+                sessions, ticks, counters[0], counters[1],
+                wheelTotal / (double) ticks, fired / (double) ticks, fired == 0 ? 0.0 : wheelTotal / (double) fired,
+                idleVisits, scanNanos, scanned / (double) ticks, scanFired);
+    }
+
+    // one pass: a warning WARN_MINUTES before the end, then the expiry, which sells the next pass
+    private static void schedule(TimingWheel wheel, long left, long warnTicks,
+                                 SplittableRandom random, long[] counters) {
+        if (left > warnTicks) {
+            wheel.schedule(left - warnTicks, () -> counters[0]++);
+        }
+        wheel.schedule(left, () -> {
+            counters[1]++;
+            schedule(wheel, passSeconds(random), warnTicks, random, counters);
+        });
+    }
+
+    private static long passSeconds(SplittableRandom random) {
+        return 60L * TimeSessions.PASSES[random.nextInt(TimeSessions.PASSES.length)][0];
+    }
+}
@@ -0,0 +1,218 @@
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * TimeSessions.java
+ * - Prepaid time play: a card buys PASSES minutes of unlimited games, and
+ *   Dashboard.launchGame() charges nothing while its session runs
+ * - Every session's "5 minutes left" warning and its expiry are timeouts
+ *   on one TimingWheel, ticked once a second by one "time-sessions"
+ *   thread, instead of a Swing timer per session. A tick costs the
+ *   timeouts that fire in it, not the number of sessions running
+ *   (see TimeSessionBenchmark)
+ * - The wheel belongs to the scheduler thread: start() (which also
+ *   extends) and end() only update the session map, so isActive() is
+ *   right at once, and queue a command for the thread to apply
+ * - Buying more time on a running session moves its end and re-arms its
+ *   timeouts; an expiry that fires before the re-arm sees the new end and
+ *   schedules itself again, so paid time is never cut short
+ * - Listeners are called on the scheduler thread; UI listeners should
+ *   hand off with SwingUtilities.invokeLater
+ *
+ * Sessions are in memory only: a restart ends them.
+ */
+public final class TimeSessions {
+
+    public interface Listener {
+        /** A session has about WARN_MINUTES left. */
+        void warning(long card, long millisLeft);
+
+        void expired(long card);
+    }
+
+    /** Passes on sale: { minutes, price in pesos }. */
+    public static final int[][] PASSES = { { 30, 300 }, { 60, 500 }, { 120, 900 } };
+
+    public static final int WARN_MINUTES = 5;
+    static final long TICK_MILLIS = 1000;
+    static final int WHEEL_SLOTS = 8192; // 2h16m at one second a tick, longer than any pass
+
+    private static TimeSessions instance;
+
+    /** One card's session; ends are System.nanoTime() values. */
+    private static final class Session {
+        final long card;
+        volatile long endNanos;
+        volatile boolean ended;
+        long warnedFor = Long.MIN_VALUE; // end the warning was given for (scheduler thread)
+        TimingWheel.Timeout expiry, warning;
+
+        Session(long card, long endNanos) {
+            this.card = card;
+            this.endNanos = endNanos;
+        }
+    }
+
+    private final ConcurrentHashMap<Long, Session> sessions = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Runnable> commands = new ConcurrentLinkedQueue<>();
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final TimingWheel wheel = new TimingWheel(WHEEL_SLOTS);
+    private final long startNanos = System.nanoTime();
+    private final Thread scheduler;
+
+    private TimeSessions() {
+        scheduler = new Thread(this::run, "time-sessions");
+        scheduler.setDaemon(true);
+        scheduler.start();
+    }
+
+    public static synchronized TimeSessions get() {
+        if (instance == null) instance = new TimeSessions();
+        return instance;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.addIfAbsent(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    // ===============================
+    // Sessions (any thread)
+    // ===============================
+
+    /**
+     * Starts a session of the given minutes, or adds them to the card's
+     * running one. Paying for it is the caller's job (see Dashboard).
+     */
+    public void start(long card, int minutes) {
+        if (minutes <= 0) throw new IllegalArgumentException("bad session length: " + minutes);
+        long add = TimeUnit.MINUTES.toNanos(minutes);
+        long now = System.nanoTime();
+        Session s = sessions.compute(card, (c, running) -> {
+            if (running != null && !running.ended && running.endNanos - now > 0) {
+                running.endNanos += add;
+                return running;
+            }
+            return new Session(c, now + add);
+        });
+        commands.add(() -> schedule(s));
+        LockSupport.unpark(scheduler);
+    }
+
+    /** Ends a card's session now, without an expiry notice. */
+    public void end(long card) {
+        Session s = sessions.remove(card);
+        if (s == null) return;
+        s.ended = true;
+        commands.add(() -> {
+            wheel.cancel(s.expiry);
+            wheel.cancel(s.warning);
+        });
+    }
+
+    public boolean isActive(long card) {
+        return millisLeft(card) > 0;
+    }
+
+    /** Time left on the card's session, or 0 if it has none. */
+    public long millisLeft(long card) {
+        Session s = sessions.get(card);
+        if (s == null || s.ended) return 0;
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(s.endNanos - System.nanoTime()));
+    }
+
+    public int activeSessions() {
+        return sessions.size();
+    }
+
+    // ===============================
+    // Scheduler thread
+    // ===============================
+
+    private void run() {
+        long ticked = 0;
+        while (true) {
+            Runnable command;
+            while ((command = commands.poll()) != null) command.run();
+
+            // catch up tick by tick if the thread was late (GC, sleep, suspend)
+            long due = (System.nanoTime() - startNanos) / TimeUnit.MILLISECONDS.toNanos(TICK_MILLIS);
+            while (ticked < due) {
+                wheel.advance();
+                ticked++;
+            }
+            long next = startNanos + (ticked + 1) * TimeUnit.MILLISECONDS.toNanos(TICK_MILLIS);
+            LockSupport.parkNanos(this, next - System.nanoTime()); // start() unparks for new sessions
+        }
+    }
+
+    // (re)arms a session's timeouts for its current end
+    private void schedule(Session s) {
+        if (s.ended) return;
+        wheel.cancel(s.expiry);
+        wheel.cancel(s.warning);
+        long end = s.endNanos;
+        s.expiry = wheel.schedule(ticksUntil(end), () -> expire(s));
+        long warnAt = end - TimeUnit.MINUTES.toNanos(WARN_MINUTES);
+        if (warnAt - System.nanoTime() > 0 && s.warnedFor != end) {
+            s.warning = wheel.schedule(ticksUntil(warnAt), () -> warn(s, end));
+        }
+    }
+
+    private void warn(Session s, long end) {
+        if (s.ended || s.endNanos != end) return; // extended since; schedule() made a new warning
+        s.warnedFor = end;
+        long left = TimeUnit.NANOSECONDS.toMillis(end - System.nanoTime());
+        for (Listener l : listeners) l.warning(s.card, left);
+    }
+
+    private void expire(Session s) {
+        if (s.ended) return;
+        long now = System.nanoTime();
+        long slack = TimeUnit.MILLISECONDS.toNanos(TICK_MILLIS) / 2;
+        // decided inside the map's compute for the card, so a purchase can't slip in between
+        boolean[] replaced = { false };
+        sessions.compute(s.card, (c, current) -> {
+            if (current != s) {
+                // ended by the clock and replaced by a new pass before this tick: retire it quietly
+                s.ended = true;
+                replaced[0] = true;
+                return current;
+            }
+            if (s.endNanos - now > slack) return current;
+            s.ended = true;
+            return null;
+        });
+        if (replaced[0]) return;
+        if (!s.ended) {
+            schedule(s); // time was added after this was scheduled
+            return;
+        }
+        for (Listener l : listeners) l.expired(s.card);
+    }
+
+    // ticks from the wheel's current tick until the given nanoTime (rounded up)
+    private long ticksUntil(long nanos) {
+        long tickNanos = TimeUnit.MILLISECONDS.toNanos(TICK_MILLIS);
+        long target = (nanos - startNanos + tickNanos - 1) / tickNanos;
+        return target - wheel.currentTick();
+    }
+
+    // ===============================
+    // Display
+    // ===============================
+
+    /** "42:05" or "1:02:05". */
+    public static String formatLeft(long millis) {
+        long seconds = Math.max(0, millis) / 1000;
+        long h = seconds / 3600, m = seconds / 60 % 60, s = seconds % 60;
+        return h > 0 ? String.format(Locale.ROOT, "%d:%02d:%02d", h, m, s) : String.format(Locale.ROOT, "%d:%02d", m, s);
+    }
+}
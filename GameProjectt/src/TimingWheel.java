@@ -0,0 +1,141 @@
+/**
+ * TimingWheel.java
+ * - Hashed timing wheel (Varghese & Lauck): a ring of buckets, one per
+ *   tick; a timeout due in d ticks goes into bucket (now + d) mod size
+ *   with d / size full turns still to wait
+ * - schedule() and cancel() are O(1) (timeouts are in intrusive doubly
+ *   linked lists); advance() looks at one bucket only. As long as timeouts
+ *   are shorter than one turn of the wheel, everything in that bucket is
+ *   due, so a tick costs only the timeouts that fire, however many are
+ *   waiting. Longer ones are looked at once per turn
+ * - Knows nothing about clocks: the owner calls advance() once per tick
+ *
+ * Not thread-safe: one thread (TimeSessions' scheduler) owns it.
+ */
+public final class TimingWheel {
+
+    /** A scheduled task; cancel it through the wheel. */
+    public static final class Timeout {
+        private final Runnable task;
+        private final long deadline;   // tick it fires on
+        private long rounds;           // full turns left before it fires
+        private Timeout prev, next;
+        private int bucket = DONE;     // bucket it waits in, or DUE / DONE
+
+        private Timeout(Runnable task, long deadline, long rounds) {
+            this.task = task;
+            this.deadline = deadline;
+            this.rounds = rounds;
+        }
+
+        public long getDeadline() {
+            return deadline;
+        }
+
+        public boolean isPending() {
+            return bucket != DONE;
+        }
+    }
+
+    private static final int DUE = -2;   // taken out of its bucket, about to run
+    private static final int DONE = -1;  // ran or was cancelled
+
+    private final Timeout[] heads;
+    private final int mask;
+    private long tick = 0;
+    private int size = 0;
+    private long visited = 0;
+
+    /** slots is rounded up to a power of two; it should span the usual timeout. */
+    public TimingWheel(int slots) {
+        int n = 1;
+        while (n < slots) n <<= 1;
+        heads = new Timeout[n];
+        mask = n - 1;
+    }
+
+    /** Runs task on the advance() that is delayTicks from now (at least the next one). */
+    public Timeout schedule(long delayTicks, Runnable task) {
+        long delay = Math.max(1, delayTicks);
+        long deadline = tick + delay;
+        Timeout t = new Timeout(task, deadline, (delay - 1) / heads.length);
+        int b = (int) deadline & mask;
+        t.bucket = b;
+        t.next = heads[b];
+        if (t.next != null) t.next.prev = t;
+        heads[b] = t;
+        size++;
+        return t;
+    }
+
+    /** Returns false if it already fired or was cancelled. */
+    public boolean cancel(Timeout t) {
+        if (t == null || t.bucket == DONE) return false;
+        if (t.bucket == DUE) {
+            t.bucket = DONE; // advance() skips it
+            return true;
+        }
+        unlink(t);
+        t.bucket = DONE;
+        return true;
+    }
+
+    /** Moves time on by one tick and runs what is due; returns how many ran. */
+    public int advance() {
+        tick++;
+        // take the due ones out first: their tasks may schedule and cancel freely
+        Timeout due = null;
+        Timeout t = heads[(int) tick & mask];
+        while (t != null) {
+            Timeout next = t.next;
+            visited++;
+            if (t.rounds > 0) {
+                t.rounds--;
+            } else {
+                unlink(t);
+                t.bucket = DUE;
+                t.next = due;
+                due = t;
+            }
+            t = next;
+        }
+        int fired = 0;
+        while (due != null) {
+            Timeout next = due.next;
+            due.next = null;
+            if (due.bucket == DUE) {
+                due.bucket = DONE;
+                due.task.run();
+                fired++;
+            }
+            due = next;
+        }
+        return fired;
+    }
+
+    private void unlink(Timeout t) {
+        if (t.prev != null) t.prev.next = t.next;
+        else heads[t.bucket] = t.next;
+        if (t.next != null) t.next.prev = t.prev;
+        t.prev = t.next = null;
+        size--;
+    }
+
+    public long currentTick() {
+        return tick;
+    }
+
+    /** Timeouts waiting. */
+    public int size() {
+        return size;
+    }
+
+    public int slots() {
+        return heads.length;
+    }
+
+    /** Timeouts looked at by advance() so far, fired or not; the cost of ticking. */
+    public long getVisited() {
+        return visited;
+    }
+}
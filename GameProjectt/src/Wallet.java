@@ -0,0 +1,256 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Wallet.java
+ * - Card balances in long centavos, keyed by card id, shared by every
+ *   screen and every card reader thread in the process
+ * - Each card is one AtomicLong: a debit is a check-and-subtract
+ *   compare-and-set loop on that card only, so thousands of cards never
+ *   meet on a lock and two debits on one card can't both pass the check
+ * - Every debit and credit is appended to a WalletJournal and is on disk
+ *   before the call returns; records carry amounts, so replay sums them
+ *   per card and does not depend on the order concurrent records landed
+ * - Screens never wait for that fsync on the EDT: they hand transactions
+ *   to submit(), which runs them in order on one "wallet-station" thread
+ * - If the journal fails, the transaction is undone and the call throws
+ *   UncheckedIOException; so does every later one (the journal fails
+ *   closed), so the station refuses paid play until it is restarted
+ * - Idempotency keys: a card reader that retries a transaction sends it
+ *   again with the same transaction id as key; a debit with a key already
+ *   seen is answered DUPLICATE and charges nothing. Keys are journaled, so
+ *   this holds across a restart for the last MAX_KEYS keys. The station's
+ *   own buttons don't use keys: each one claims its screen before it pays
+ *
+ * The journal is "wallet.journal", replaceable with "arcade.walletJournal".
+ * A card seen for the first time starts empty, except DEFAULT_CARD (the
+ * demo card), which is loaded with STARTING_CENTAVOS.
+ */
+public final class Wallet {
+
+    /** The arcade card used when no card has been swiped. */
+    public static final long DEFAULT_CARD = 1;
+    public static final long STARTING_CENTAVOS = 25_000; // ₱250.00, DEFAULT_CARD only
+
+    /** Results of debit(). */
+    public static final int OK = 0;
+    public static final int INSUFFICIENT = 1;
+    public static final int DUPLICATE = 2;     // key already used; nothing charged
+
+    static final int MAX_KEYS = 1 << 20;
+
+    private static Wallet instance;
+
+    private static final ExecutorService station = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "wallet-station");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final WalletJournal journal;
+    private final ConcurrentHashMap<Long, AtomicLong> balances = new ConcurrentHashMap<>();
+
+    // recent idempotency keys, oldest first in keyOrder
+    private final ConcurrentHashMap<Long, Boolean> keys = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Long> keyOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger keyCount = new AtomicInteger();
+
+    private final LongAdder casRetries = new LongAdder();
+
+    Wallet(String path) throws IOException {
+        journal = WalletJournal.open(Paths.get(path), (type, card, sequence, amount, balanceAfter, reference) -> {
+            AtomicLong balance = balances.computeIfAbsent(card, c -> new AtomicLong());
+            balance.addAndGet(type == WalletJournal.DEBIT ? -amount : amount);
+            if (reference != 0) rememberKey(reference);
+        });
+    }
+
+    public static synchronized Wallet get() {
+        if (instance == null) {
+            String path = System.getProperty("arcade.walletJournal", "wallet.journal");
+            try {
+                instance = new Wallet(path);
+            } catch (IOException e) {
+                throw new UncheckedIOException("cannot open wallet journal " + path, e);
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Runs wallet work for the screens on the "wallet-station" thread, in
+     * the order it was submitted; the future completes once its records are
+     * on disk (or exceptionally). Swing code takes the result back with
+     * SwingUtilities.invokeLater.
+     */
+    public static <T> CompletableFuture<T> submit(Supplier<T> work) {
+        return CompletableFuture.supplyAsync(work, station);
+    }
+
+    // ===============================
+    // Transactions
+    // ===============================
+
+    public long balance(long card) {
+        AtomicLong balance = balances.get(card);
+        return balance != null ? balance.get() : startingCentavos(card);
+    }
+
+    /** What a card holds before its first transaction: only the demo card is loaded. */
+    public static long startingCentavos(long card) {
+        return card == DEFAULT_CARD ? STARTING_CENTAVOS : 0;
+    }
+
+    /** Debit without an idempotency key. */
+    public boolean debit(long card, long centavos) {
+        return debit(card, centavos, 0) == OK;
+    }
+
+    /**
+     * Takes centavos from a card if it has enough, at most once per key
+     * (0 = no key). Returns OK, INSUFFICIENT or DUPLICATE.
+     */
+    public int debit(long card, long centavos, long key) {
+        if (centavos < 0) throw new IllegalArgumentException("negative debit: " + centavos);
+        if (key != 0 && keys.putIfAbsent(key, Boolean.TRUE) != null) return DUPLICATE;
+
+        AtomicLong balance = account(card);
+        long before;
+        while (true) {
+            before = balance.get();
+            if (before < centavos) {
+                if (key != 0) keys.remove(key); // nothing charged: a retry may succeed later
+                return INSUFFICIENT;
+            }
+            if (balance.compareAndSet(before, before - centavos)) break;
+            casRetries.increment();
+        }
+        try {
+            awaitDurable(append(WalletJournal.DEBIT, card, centavos, before - centavos, key));
+        } catch (UncheckedIOException e) {
+            // not in the journal, so not charged: undo it and free the key for a retry
+            balance.addAndGet(centavos);
+            if (key != 0) keys.remove(key);
+            throw e;
+        }
+        if (key != 0) trackKey(key);
+        return OK;
+    }
+
+    public void credit(long card, long centavos) {
+        if (centavos < 0) throw new IllegalArgumentException("negative credit: " + centavos);
+        if (centavos == 0) return;
+        AtomicLong balance = account(card);
+        long after = balance.addAndGet(centavos);
+        try {
+            awaitDurable(append(WalletJournal.CREDIT, card, centavos, after, 0));
+        } catch (UncheckedIOException e) {
+            balance.addAndGet(-centavos);
+            throw e;
+        }
+    }
+
+    /** A fresh non-zero idempotency key: one per transaction, reused on its retries. */
+    public static long newKey() {
+        long key;
+        do {
+            key = ThreadLocalRandom.current().nextLong();
+        } while (key == 0);
+        return key;
+    }
+
+    // first use of the demo card journals its starting load, exactly once
+    private AtomicLong account(long card) {
+        AtomicLong balance = balances.get(card);
+        if (balance != null) return balance;
+        return balances.computeIfAbsent(card, c -> {
+            long start = startingCentavos(c);
+            if (start > 0) append(WalletJournal.CREDIT, c, start, start, 0);
+            return new AtomicLong(start);
+        });
+    }
+
+    private void rememberKey(long key) {
+        if (keys.putIfAbsent(key, Boolean.TRUE) == null) trackKey(key);
+    }
+
+    private void trackKey(long key) {
+        keyOrder.add(key);
+        if (keyCount.incrementAndGet() > MAX_KEYS) {
+            Long oldest = keyOrder.poll();
+            if (oldest != null) {
+                keys.remove(oldest);
+                keyCount.decrementAndGet();
+            }
+        }
+    }
+
+    private long append(int type, long card, long centavos, long balanceAfter, long reference) {
+        try {
+            return journal.append(type, card, centavos, balanceAfter, reference);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // many callers wait on one fsync (group commit)
+    private void awaitDurable(long sequence) {
+        try {
+            journal.awaitDurable(sequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // ===============================
+    // Stats
+    // ===============================
+
+    public int cardCount() {
+        return balances.size();
+    }
+
+    /** Failed compare-and-sets, i.e. debits that raced another on the same card. */
+    public long getCasRetries() {
+        return casRetries.sum();
+    }
+
+    public long getCommits() {
+        return journal.getCommits();
+    }
+
+    public long getTransactions() {
+        return journal.getLastSequence();
+    }
+
+    void close() throws IOException {
+        journal.close();
+    }
+
+    // ===============================
+    // Amounts
+    // ===============================
+
+    public static long centavos(long pesos) {
+        return Math.multiplyExact(pesos, 100);
+    }
+
+    /** "₱1,234.50" without going through double. */
+    public static String format(long centavos) {
+        String sign = centavos < 0 ? "-" : "";
+        long abs = Math.abs(centavos);
+        return String.format(Locale.ROOT, "%s₱%,d.%02d", sign, abs / 100, abs % 100);
+    }
+}
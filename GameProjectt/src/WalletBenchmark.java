@@ -0,0 +1,167 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * WalletBenchmark.java
+ * - Contention benchmark for Wallet: many threads (stations) debit and
+ *   credit many cards at once against a real journal in a temp file
+ * - A "hot" share of all debits goes to card 0, so the compare-and-set path
+ *   is measured under real contention, not only on private cards
+ * - A share of debits is sent again with the same idempotency key, as a
+ *   reader retrying a transaction would; those must come back DUPLICATE
+ *   and charge nothing
+ * - At the end it checks that no centavo was lost or made up, reopens the
+ *   journal and checks that replay gives the same balances
+ *
+ * Usage: java WalletBenchmark [threads] [cards] [seconds] [hotPercent]
+ * Defaults: 2 x cores, 10000 cards, 5 seconds, 10% to the hot card
+ */
+public class WalletBenchmark {
+
+    private static final int RETRY_PERCENT = 5;
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors() * 2;
+        int cards = Math.max(2, args.length > 1 ? Integer.parseInt(args[1]) : 10_000);
+        double seconds = args.length > 2 ? Double.parseDouble(args[2]) : 5;
+        int hotPercent = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+
+        File file = File.createTempFile("wallet-bench", ".journal");
+        file.deleteOnExit();
+        if (!file.delete()) throw new IOException("cannot reset " + file);
+        Wallet wallet = new Wallet(file.getPath());
+        // cards start empty: load each one first (in parallel, so the loads share fsyncs)
+        IntStream.range(0, cards).parallel().forEach(c -> wallet.credit(c, Wallet.STARTING_CENTAVOS));
+
+        LongAdder debits = new LongAdder(), credits = new LongAdder();
+        LongAdder insufficient = new LongAdder(), duplicates = new LongAdder(), retries = new LongAdder();
+        LongAdder debited = new LongAdder(), credited = new LongAdder();
+        long[] latencyBuckets = new long[64];   // log2(nanos) histogram, merged at the end
+        Object latencyLock = new Object();
+
+        long deadline = System.nanoTime() + (long) (seconds * 1e9);
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] stations = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            long seed = t * 0x9E3779B97F4A7C15L + 1;
+            stations[t] = new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                long[] local = new long[64];
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                while (System.nanoTime() < deadline) {
+                    long card = random.nextInt(100) < hotPercent ? 0 : 1 + random.nextInt(cards - 1);
+                    if (random.nextInt(10) == 0) {
+                        long amount = 100 + random.nextInt(5_000);
+                        wallet.credit(card, amount);
+                        credits.increment();
+                        credited.add(amount);
+                        continue;
+                    }
+                    long amount = 1 + random.nextInt(300);
+                    long key = Wallet.newKey();
+                    long t0 = System.nanoTime();
+                    int result = wallet.debit(card, amount, key);
+                    local[63 - Long.numberOfLeadingZeros(Math.max(1, System.nanoTime() - t0))]++;
+                    debits.increment();
+                    if (result == Wallet.OK) {
+                        debited.add(amount);
+                        if (random.nextInt(100) < RETRY_PERCENT) {
+                            retries.increment();
+                            if (wallet.debit(card, amount, key) != Wallet.DUPLICATE) {
+                                throw new IllegalStateException("retried transaction charged twice");
+                            }
+                            duplicates.increment();
+                        }
+                    } else {
+                        insufficient.increment();
+                    }
+                }
+                synchronized (latencyLock) {
+                    for (int i = 0; i < local.length; i++) latencyBuckets[i] += local[i];
+                }
+            }, "station-" + t);
+            stations[t].start();
+        }
+        long t0 = System.nanoTime();
+        start.countDown();
+        for (Thread station : stations) station.join();
+        double elapsed = (System.nanoTime() - t0) / 1e9;
+
+        // conservation: every card started at its starting balance plus the load
+        long total = 0, started = 0;
+        long[] balances = new long[cards];
+        for (int c = 0; c < cards; c++) {
+            balances[c] = wallet.balance(c);
+            total += balances[c];
+            started += Wallet.startingCentavos(c) + Wallet.STARTING_CENTAVOS;
+        }
+        long expected = started + credited.sum() - debited.sum();
+        long transactions = wallet.getTransactions();
+        long commits = wallet.getCommits();
+        wallet.close();
+
+        long t1 = System.nanoTime();
+        Wallet replayed = new Wallet(file.getPath());
+        double replayMillis = (System.nanoTime() - t1) / 1e6;
+        boolean replayMatches = true;
+        for (int c = 0; c < cards; c++) {
+            if (replayed.balance(c) != balances[c]) {
+                replayMatches = false;
+                break;
+            }
+        }
+        replayed.close();
+
+        long ops = debits.sum() + credits.sum() + duplicates.sum();
+        System.out.printf(Locale.ROOT,
+                "{%n"
+                + "  \"threads\": %d,%n"
+                + "  \"cards\": %d,%n"
+                + "  \"hotPercent\": %d,%n"
+                + "  \"seconds\": %.3f,%n"
+                + "  \"operations\": %d,%n"
+                + "  \"operationsPerSecond\": %.0f,%n"
+                + "  \"debits\": %d,%n"
+                + "  \"credits\": %d,%n"
+                + "  \"insufficient\": %d,%n"
+                + "  \"retries\": %d,%n"
+                + "  \"retriesRejected\": %d,%n"
+                + "  \"casRetries\": %d,%n"
+                + "  \"journalRecords\": %d,%n"
+                + "  \"fsyncs\": %d,%n"
+                + "  \"recordsPerFsync\": %.1f,%n"
+                + "  \"debitP50Micros\": %.1f,%n"
+                + "  \"debitP99Micros\": %.1f,%n"
+                + "  \"conserved\": %b,%n"
+                + "  \"replayMatches\": %b,%n"
+                + "  \"replayMillis\": %.1f%n"
+                + "}%n",
+                threads, cards, hotPercent, elapsed, ops, ops / elapsed,
+                debits.sum(), credits.sum(), insufficient.sum(), retries.sum(), duplicates.sum(),
+                wallet.getCasRetries(), transactions, commits, commits == 0 ? 0.0 : (double) transactions / commits,
+                percentileMicros(latencyBuckets, 0.5), percentileMicros(latencyBuckets, 0.99),
+                total == expected, replayMatches, replayMillis);
+    }
+
+    // upper bound of the log2 bucket holding the q-th debit latency
+    private static double percentileMicros(long[] buckets, double q) {
+        long count = 0;
+        for (long b : buckets) count += b;
+        long target = (long) Math.ceil(q * count);
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= target && count > 0) return (1L << (i + 1)) / 1000.0;
+        }
+        return 0;
+    }
+}
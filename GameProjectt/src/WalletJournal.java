@@ -0,0 +1,237 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * WalletJournal.java
+ * - Append-only log of every wallet transaction, the wallet's only storage
+ * - Fixed 48-byte records, each with a CRC32, behind a 16-byte header
+ * - Group commit: append() only copies the record into a buffer; one
+ *   "wallet-journal" thread writes everything pending with a single
+ *   FileChannel write and a single force(), then wakes every caller whose
+ *   record that covered. Transactions arriving during an fsync ride the
+ *   next one, so the fsync count follows the disk, not the traffic
+ * - A failed write or fsync fails closed: every caller waiting on that
+ *   batch, and every later append, gets an IOException until the process
+ *   restarts. What reached the disk is unknown, so nothing is retried on
+ *   the same channel; reopening replays the valid prefix and carries on
+ * - replay() maps the file read-only and hands back every valid record;
+ *   a torn tail from a crash (short record or bad CRC) is cut off there
+ *
+ * Record: type int, card long, sequence long, amount long (centavos),
+ * balance after long (centavos), reference long (idempotency key or 0), crc int.
+ * Replay sums amounts; balance after is for audits, since concurrent records
+ * may land out of order.
+ */
+public final class WalletJournal implements Closeable {
+
+    public static final int CREDIT = 1;
+    public static final int DEBIT = 2;
+
+    static final int RECORD_BYTES = 48;
+    static final int HEADER_BYTES = 16;
+    private static final long MAGIC = 0x41524357414C4C54L; // "ARCWALLT"
+    private static final int VERSION = 1;
+
+    public interface Visitor {
+        void record(int type, long card, long sequence, long amount, long balanceAfter, long reference);
+    }
+
+    private final FileChannel channel;
+    private final Thread writer;
+    private final Object lock = new Object();
+
+    // guarded by lock
+    private ByteBuffer pending = ByteBuffer.allocate(RECORD_BYTES * 256);
+    private ByteBuffer writing = ByteBuffer.allocate(RECORD_BYTES * 256);
+    private long nextSequence;
+    private long durableSequence;
+    private IOException failure;
+    private boolean closed;
+    private long commits;
+
+    // used only by appenders under lock
+    private final CRC32 crc = new CRC32();
+
+    private WalletJournal(FileChannel channel, long nextSequence) {
+        this.channel = channel;
+        this.nextSequence = nextSequence;
+        this.durableSequence = nextSequence - 1;
+        writer = new Thread(this::writeLoop, "wallet-journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Opens (or creates) a journal, replaying every valid record into the
+     * visitor first. Replay is a sequential scan of a read-only mapping.
+     */
+    public static WalletJournal open(Path path, Visitor visitor) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                header.putLong(MAGIC).putInt(VERSION).putInt(RECORD_BYTES).flip();
+                channel.truncate(0);
+                channel.write(header, 0);
+                channel.force(true);
+                size = HEADER_BYTES;
+            }
+            long end = replay(channel, size, visitor);
+            if (end < size) channel.truncate(end); // drop a torn tail
+            channel.position(end);
+            long records = (end - HEADER_BYTES) / RECORD_BYTES;
+            return new WalletJournal(channel, records + 1);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static long replay(FileChannel channel, long size, Visitor visitor) throws IOException {
+        if (size > Integer.MAX_VALUE) throw new IOException("wallet journal larger than 2 GB");
+        MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        if (map.getLong(0) != MAGIC || map.getInt(8) != VERSION || map.getInt(12) != RECORD_BYTES) {
+            throw new IOException("not a wallet journal (or an unsupported version)");
+        }
+        CRC32 crc = new CRC32();
+        byte[] record = new byte[RECORD_BYTES];
+        ByteBuffer r = ByteBuffer.wrap(record);
+        long expected = 1;
+        int pos = HEADER_BYTES;
+        while (pos + RECORD_BYTES <= size) {
+            map.get(pos, record);
+            crc.reset();
+            crc.update(record, 0, RECORD_BYTES - 4);
+            if ((int) crc.getValue() != r.getInt(RECORD_BYTES - 4) || r.getLong(12) != expected) break;
+            visitor.record(r.getInt(0), r.getLong(4), r.getLong(12), r.getLong(20), r.getLong(28), r.getLong(36));
+            expected++;
+            pos += RECORD_BYTES;
+        }
+        return pos;
+    }
+
+    // ===============================
+    // Appending
+    // ===============================
+
+    /**
+     * Queues a record and returns its sequence number; it is durable once
+     * awaitDurable(sequence) returns. Records are written in call order.
+     */
+    public long append(int type, long card, long amount, long balanceAfter, long reference) throws IOException {
+        synchronized (lock) {
+            if (failure != null) throw new IOException("wallet journal failed", failure);
+            if (closed) throw new IOException("wallet journal closed");
+            if (pending.remaining() < RECORD_BYTES) {
+                ByteBuffer grown = ByteBuffer.allocate(pending.capacity() * 2);
+                pending.flip();
+                grown.put(pending);
+                pending = grown;
+            }
+            long sequence = nextSequence++;
+            int start = pending.position();
+            pending.putInt(type).putLong(card).putLong(sequence).putLong(amount).putLong(balanceAfter).putLong(reference);
+            crc.reset();
+            crc.update(pending.array(), start, RECORD_BYTES - 4);
+            pending.putInt((int) crc.getValue());
+            lock.notifyAll();
+            return sequence;
+        }
+    }
+
+    /** Blocks until the record is on disk (fsynced). */
+    public void awaitDurable(long sequence) throws IOException {
+        synchronized (lock) {
+            boolean interrupted = false;
+            while (durableSequence < sequence && failure == null) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) Thread.currentThread().interrupt();
+            if (durableSequence < sequence) throw new IOException("wallet journal failed", failure);
+        }
+    }
+
+    private void writeLoop() {
+        while (true) {
+            long target;
+            ByteBuffer batch;
+            synchronized (lock) {
+                while (pending.position() == 0 && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (pending.position() == 0) return; // closed and drained
+                // swap buffers: appenders keep filling the other one during the fsync
+                batch = pending;
+                pending = writing;
+                writing = batch;
+                target = nextSequence - 1;
+            }
+            try {
+                batch.flip();
+                while (batch.hasRemaining()) channel.write(batch);
+                channel.force(false);
+                batch.clear();
+                synchronized (lock) {
+                    durableSequence = target;
+                    commits++;
+                    lock.notifyAll();
+                }
+            } catch (IOException e) {
+                synchronized (lock) {
+                    failure = e;
+                    lock.notifyAll();
+                }
+                return;
+            }
+        }
+    }
+
+    // ===============================
+    // Stats and shutdown
+    // ===============================
+
+    /** Number of fsyncs so far; compare with sequences to see the batching. */
+    public long getCommits() {
+        synchronized (lock) {
+            return commits;
+        }
+    }
+
+    public long getLastSequence() {
+        synchronized (lock) {
+            return nextSequence - 1;
+        }
+    }
+
+    /** Writes out what is pending, then closes the file. */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) return;
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+}
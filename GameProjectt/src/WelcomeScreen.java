@@ -2,31 +2,26 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionListener;
 import java.awt.event.ActionEvent;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
-class ScaledGifPanel extends JPanel {
-    private ImageIcon gifIcon;
+class ScaledGifPanel extends ScaledImagePanel {
 
     public ScaledGifPanel(String gifPath) {
-        gifIcon = new ImageIcon(gifPath);
+        super(gifPath);
         setLayout(null);
     }
-
-    @Override
-    protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
-        Image img = gifIcon.getImage();
-        g.drawImage(img, 0, 0, getWidth(), getHeight(), this);
-    }
 }
 
 public class WelcomeScreen extends JFrame implements ActionListener {
 
     private JButton startButton;
-    private double balance = 250.00; // initial balance ₱250
+    private JProgressBar loadingBar;
+    private long card = Wallet.DEFAULT_CARD; // wallet account of the card on the reader
     private boolean reminderShown = false;
 
     private static final String GIF_PATH = "src/images/arcade.gif";
-    private static final String LOGO_PATH = "src/images/timezone.png";
+    static final String LOGO_PATH = "src/images/timezone.png";
     private static final String CARD_BG_PATH = "src/images/card.png";
 
     public WelcomeScreen() {
@@ -55,9 +50,7 @@ public class WelcomeScreen extends JFrame implements ActionListener {
         layeredPane.add(uiPanel, Integer.valueOf(1));
 
         // LOGO
-        ImageIcon logo = new ImageIcon(LOGO_PATH);
-        Image scaledLogo = logo.getImage().getScaledInstance(260, 140, Image.SCALE_SMOOTH);
-        JLabel logoLabel = new JLabel(new ImageIcon(scaledLogo));
+        JLabel logoLabel = new JLabel(AssetCache.scaledIcon(LOGO_PATH, 260, 140));
         logoLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
         uiPanel.add(Box.createVerticalStrut(20));
         uiPanel.add(logoLabel);
@@ -78,10 +71,41 @@ public class WelcomeScreen extends JFrame implements ActionListener {
         startButton.setAlignmentX(Component.CENTER_ALIGNMENT);
         startButton.addActionListener(this);
 
+        // LOADING PROGRESS (games are preloaded while the welcome screen shows)
+        loadingBar = new JProgressBar();
+        loadingBar.setStringPainted(true);
+        loadingBar.setFont(new Font(Font.MONOSPACED, Font.BOLD, 14));
+        loadingBar.setForeground(Color.ORANGE);
+        loadingBar.setBackground(Color.BLACK);
+        loadingBar.setBorder(BorderFactory.createLineBorder(Color.YELLOW, 2, true));
+        loadingBar.setMaximumSize(new Dimension(420, 26));
+        loadingBar.setAlignmentX(Component.CENTER_ALIGNMENT);
+
         uiPanel.add(Box.createVerticalGlue());
         uiPanel.add(startButton);
+        uiPanel.add(Box.createVerticalStrut(12));
+        uiPanel.add(loadingBar);
         uiPanel.add(Box.createVerticalStrut(50));
 
+        startButton.setEnabled(false);
+        AssetPreloader.start(); // no-op when ArcadeApp already started it
+        CardIndex.start();
+        AssetPreloader.addListener(new AssetPreloader.Listener() {
+            @Override
+            public void progress(int done, int total) {
+                loadingBar.setMaximum(Math.max(1, total));
+                loadingBar.setValue(done);
+                loadingBar.setString("LOADING GAMES... " + done + "/" + total);
+            }
+
+            @Override
+            public void finished() {
+                AssetPreloader.removeListener(this);
+                loadingBar.setVisible(false);
+                startButton.setEnabled(true);
+            }
+        });
+
         // HANDLE WINDOW CLOSING
         addWindowListener(new java.awt.event.WindowAdapter() {
             @Override
@@ -96,42 +120,94 @@ public class WelcomeScreen extends JFrame implements ActionListener {
     @Override
     public void actionPerformed(ActionEvent e) {
         if (e.getSource() == startButton) {
-            // ===== SHOW CARD BALANCE POPUP =====
-            JFrame cardFrame = new JFrame("Card Balance");
-            cardFrame.setSize(400, 200);
-            cardFrame.setLocationRelativeTo(null);
-            cardFrame.setResizable(false);
-            cardFrame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
-
-            JPanel panel = new JPanel() {
-                private ImageIcon bg = new ImageIcon(CARD_BG_PATH);
-
-                @Override
-                protected void paintComponent(Graphics g) {
-                    super.paintComponent(g);
-                    g.drawImage(bg.getImage(), 0, 0, getWidth(), getHeight(), this);
-                }
-            };
-            panel.setLayout(new GridBagLayout());
-            panel.setOpaque(false);
-
-            JLabel amountLabel = new JLabel("₱" + String.format("%.2f", balance));
-            amountLabel.setFont(new Font(Font.MONOSPACED, Font.BOLD, 28));
-            amountLabel.setForeground(Color.WHITE);
-            panel.add(amountLabel);
-
-            cardFrame.add(panel);
-            cardFrame.setVisible(true);
-
-            // Wait until the popup is closed, then open Dashboard
-            cardFrame.addWindowListener(new java.awt.event.WindowAdapter() {
-                @Override
-                public void windowClosed(java.awt.event.WindowEvent windowEvent) {
-                    dispose(); // close welcome screen
-                    new Dashboard(balance); // your dashboard code
-                }
-            });
+            // ===== READ THE CARD =====
+            Object typed = JOptionPane.showInputDialog(this, "Card number:", "Swipe Card",
+                    JOptionPane.PLAIN_MESSAGE, null, null, CardIndex.formatCardNumber(CardIndex.DEMO_CARD_NUMBER));
+            if (typed == null) return; // cancelled
+            long cardNumber = CardIndex.parseCardNumber(typed.toString());
+
+            // the index and the wallet may still be opening: look the card up off the EDT
+            String label = startButton.getText();
+            startButton.setEnabled(false);
+            startButton.setText("PLEASE WAIT...");
+            CompletableFuture.supplyAsync(() -> Swipe.of(cardNumber)).whenComplete((swipe, error) ->
+                    SwingUtilities.invokeLater(() -> {
+                        startButton.setText(label);
+                        startButton.setEnabled(true);
+                        if (error != null) {
+                            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                    ? error.getCause() : error;
+                            System.err.println("Card swipe failed: " + cause.getMessage());
+                            JOptionPane.showMessageDialog(this, "Cards can't be read right now. Please ask the staff for help.",
+                                    "Swipe Card", JOptionPane.ERROR_MESSAGE);
+                        } else {
+                            showCard(swipe);
+                        }
+                    }));
+        }
+    }
+
+    // what a swipe found, resolved on a worker thread
+    private static final class Swipe {
+        final long account;   // CardIndex.NOT_FOUND if unknown
+        final int status;
+        final long balance;   // centavos
+
+        private Swipe(long account, int status, long balance) {
+            this.account = account;
+            this.status = status;
+            this.balance = balance;
+        }
+
+        static Swipe of(long cardNumber) {
+            CardIndex index = CardIndex.get();
+            long account = index.account(cardNumber);
+            if (account == CardIndex.NOT_FOUND) return new Swipe(account, 0, 0);
+            int status = index.status(cardNumber);
+            return new Swipe(account, status, status == CardIndex.BLOCKED ? 0 : Wallet.get().balance(account));
+        }
+    }
+
+    private void showCard(Swipe swipe) {
+        if (swipe.account == CardIndex.NOT_FOUND) {
+            JOptionPane.showMessageDialog(this, "Card not recognized. Please try again.",
+                    "Swipe Card", JOptionPane.WARNING_MESSAGE);
+            return;
         }
+        if (swipe.status == CardIndex.BLOCKED) {
+            JOptionPane.showMessageDialog(this, "This card is blocked. Please see the counter.",
+                    "Swipe Card", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        card = swipe.account;
+
+        // ===== SHOW CARD BALANCE POPUP =====
+        JFrame cardFrame = new JFrame("Card Balance");
+        cardFrame.setSize(400, 200);
+        cardFrame.setLocationRelativeTo(null);
+        cardFrame.setResizable(false);
+        cardFrame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+
+        JPanel panel = new ScaledImagePanel(CARD_BG_PATH);
+        panel.setLayout(new GridBagLayout());
+        panel.setOpaque(false);
+
+        JLabel amountLabel = new JLabel(Wallet.format(swipe.balance));
+        amountLabel.setFont(new Font(Font.MONOSPACED, Font.BOLD, 28));
+        amountLabel.setForeground(Color.WHITE);
+        panel.add(amountLabel);
+
+        cardFrame.add(panel);
+        cardFrame.setVisible(true);
+
+        // Wait until the popup is closed, then open Dashboard
+        cardFrame.addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosed(java.awt.event.WindowEvent windowEvent) {
+                dispose(); // close welcome screen
+                new Dashboard(card); // your dashboard code
+            }
+        });
     }
 
     // ==============================
@@ -159,7 +235,7 @@ public class WelcomeScreen extends JFrame implements ActionListener {
         mainPanel.setLayout(new BorderLayout());
         mainPanel.setBorder(BorderFactory.createLineBorder(Color.YELLOW, 4, true));
 
-        ImageIcon logoIcon = new ImageIcon(LOGO_PATH);
+        ImageIcon logoIcon = AssetCache.icon(LOGO_PATH);
         JLabel logoLabel = new JLabel(logoIcon);
         logoLabel.setHorizontalAlignment(SwingConstants.CENTER);
         logoLabel.setPreferredSize(new Dimension(350, 150));
@@ -0,0 +1,445 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * WordDictionary.java
+ * - Hangman's word list, from a tab-separated file
+ *   (word, hint, category, difficulty; '#' starts a comment line)
+ * - The file is memory-mapped and parsed straight from the mapped bytes;
+ *   hints stay in the mapping and are only decoded when a word is played
+ * - Entries are indexed by phrase length, by category, by difficulty and by
+ *   category + difficulty, and each carries its letter set as a 26-bit mask
+ *   (see HangmanState), so a random pick is O(1) and filtering candidates
+ *   against a round only looks at phrases of the right length
+ * - start() loads it on a "word-loader" thread from ArcadeApp.main; until
+ *   current() returns it, Hangman plays its built-in words
+ *
+ * - HangmanSolver rates every word and applyRatings() stores the result and
+ *   re-derives difficulty (and its indexes) from it
+ *
+ * The file is "src/words.tsv", replaceable with "arcade.wordList"; if it is
+ * not a file it is read from the classpath instead. Difficulty is 1 (easy)
+ * to MAX_DIFFICULTY (hard), 0 for unrated.
+ */
+public final class WordDictionary {
+
+    public static final int MAX_DIFFICULTY = 5;
+
+    private static volatile WordDictionary current;
+    private static boolean started = false;
+
+    private final ByteBuffer data;     // the file; hints are decoded from it lazily
+    private final int size;
+    private final String[] words;
+    private final int[] masks;
+    private final int[] hintOffset, hintLength;
+    private final short[] category;
+    private final byte[] difficulty;
+    private final byte[] rating;       // solver mistakes per word, -1 until rated
+    private final String[] categories;
+    private final char[] text;         // every word back to back, for scans
+    private final int[] textStart;     // word id is text[textStart[id] .. textStart[id + 1])
+
+    // index: ids of group g are ids[start[g] .. start[g + 1]); ids are in
+    // length order, so byLength groups are plain ranges
+    private final Index byLength, byCategory;
+    private volatile Index byDifficulty, byCategoryDifficulty;  // rebuilt by applyRatings()
+
+    private WordDictionary(ByteBuffer data) {
+        this.data = data;
+
+        // one pass over the bytes; growable columns
+        int capacity = Math.max(16, data.limit() / 24);
+        String[] w = new String[capacity];
+        int[] ho = new int[capacity], hl = new int[capacity];
+        short[] cat = new short[capacity];
+        byte[] diff = new byte[capacity];
+        Map<String, Integer> categoryIds = new HashMap<>();
+        List<String> categoryNames = new ArrayList<>();
+
+        int[] fieldStart = new int[4], fieldEnd = new int[4];
+        byte[] scratch = new byte[256];
+        int n = 0;
+        int limit = data.limit();
+        int pos = 0;
+        while (pos < limit) {
+            int lineEnd = pos;
+            while (lineEnd < limit && data.get(lineEnd) != '\n') lineEnd++;
+            int end = lineEnd > pos && data.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+
+            int fields = 0;
+            int f = pos;
+            for (int i = pos; i <= end && fields < 4; i++) {
+                if (i == end || data.get(i) == '\t') {
+                    fieldStart[fields] = f;
+                    fieldEnd[fields] = i;
+                    fields++;
+                    f = i + 1;
+                }
+            }
+            boolean comment = end > pos && data.get(pos) == '#';
+            if (!comment && fields >= 2 && fieldEnd[0] > fieldStart[0]) {
+                if (n == w.length) {
+                    int grown = n + (n >> 1);
+                    w = Arrays.copyOf(w, grown);
+                    ho = Arrays.copyOf(ho, grown);
+                    hl = Arrays.copyOf(hl, grown);
+                    cat = Arrays.copyOf(cat, grown);
+                    diff = Arrays.copyOf(diff, grown);
+                }
+                scratch = ensure(scratch, fieldEnd[0] - fieldStart[0]);
+                w[n] = decode(data, fieldStart[0], fieldEnd[0], scratch).trim().toUpperCase(Locale.ROOT);
+                ho[n] = fieldStart[1];
+                hl[n] = fieldEnd[1] - fieldStart[1];
+
+                String categoryName = "GENERAL";
+                if (fields >= 3 && fieldEnd[2] > fieldStart[2]) {
+                    scratch = ensure(scratch, fieldEnd[2] - fieldStart[2]);
+                    categoryName = decode(data, fieldStart[2], fieldEnd[2], scratch).trim().toUpperCase(Locale.ROOT);
+                }
+                Integer id = categoryIds.get(categoryName);
+                if (id == null) {
+                    id = categoryNames.size();
+                    categoryIds.put(categoryName, id);
+                    categoryNames.add(categoryName);
+                }
+                cat[n] = (short) (int) id;
+                diff[n] = fields >= 4 ? (byte) parseDifficulty(data, fieldStart[3], fieldEnd[3]) : 0;
+                if (!w[n].isEmpty()) n++;
+            }
+            pos = lineEnd + 1;
+        }
+        if (categoryNames.size() > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("too many categories: " + categoryNames.size());
+        }
+
+        // entries are stored sorted by length, so each length is one contiguous id range
+        int maxLength = 0;
+        int[] lengthKey = new int[n];
+        for (int i = 0; i < n; i++) {
+            lengthKey[i] = w[i].length();
+            maxLength = Math.max(maxLength, lengthKey[i]);
+        }
+        byLength = new Index(lengthKey, maxLength + 1);
+        int[] order = byLength.ids;
+
+        this.size = n;
+        this.categories = categoryNames.toArray(new String[0]);
+        this.words = new String[n];
+        this.hintOffset = new int[n];
+        this.hintLength = new int[n];
+        this.category = new short[n];
+        this.difficulty = new byte[n];
+        this.rating = new byte[n];
+        Arrays.fill(rating, (byte) -1);
+        this.masks = new int[n];
+        this.textStart = new int[n + 1];
+        for (int id = 0; id < n; id++) {
+            int src = order[id];
+            order[id] = id;
+            words[id] = w[src];
+            hintOffset[id] = ho[src];
+            hintLength[id] = hl[src];
+            category[id] = cat[src];
+            difficulty[id] = diff[src];
+            masks[id] = HangmanState.letterMask(words[id]);
+            textStart[id + 1] = textStart[id] + words[id].length();
+        }
+        this.text = new char[textStart[n]];
+        for (int id = 0; id < n; id++) {
+            words[id].getChars(0, words[id].length(), text, textStart[id]);
+        }
+
+        int[] categoryKey = new int[n];
+        for (int i = 0; i < n; i++) categoryKey[i] = category[i];
+        byCategory = new Index(categoryKey, categories.length);
+        indexDifficulty();
+    }
+
+    private void indexDifficulty() {
+        int[] difficultyKey = new int[size], bothKey = new int[size];
+        for (int i = 0; i < size; i++) {
+            difficultyKey[i] = difficulty[i];
+            bothKey[i] = category[i] * (MAX_DIFFICULTY + 1) + difficulty[i];
+        }
+        byDifficulty = new Index(difficultyKey, MAX_DIFFICULTY + 1);
+        byCategoryDifficulty = new Index(bothKey, categories.length * (MAX_DIFFICULTY + 1));
+    }
+
+    private static byte[] ensure(byte[] scratch, int length) {
+        return scratch.length >= length ? scratch : new byte[Math.max(length, scratch.length * 2)];
+    }
+
+    private static String decode(ByteBuffer data, int from, int to, byte[] scratch) {
+        for (int i = from; i < to; i++) scratch[i - from] = data.get(i);
+        return new String(scratch, 0, to - from, StandardCharsets.UTF_8);
+    }
+
+    private static int parseDifficulty(ByteBuffer data, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int d = data.get(i) - '0';
+            if (d < 0 || d > 9) break;
+            value = value * 10 + d;
+        }
+        return Math.min(value, MAX_DIFFICULTY);
+    }
+
+    /** Entry ids grouped by a small integer key (counting sort). */
+    private static final class Index {
+        final int[] start;
+        final int[] ids;
+
+        Index(int[] keys, int groups) {
+            start = new int[groups + 1];
+            for (int key : keys) start[key + 1]++;
+            for (int g = 0; g < groups; g++) start[g + 1] += start[g];
+            int[] next = Arrays.copyOf(start, groups);
+            ids = new int[keys.length];
+            for (int i = 0; i < keys.length; i++) ids[next[keys[i]]++] = i;
+        }
+
+        int count(int group) {
+            return group < 0 || group + 1 >= start.length ? 0 : start[group + 1] - start[group];
+        }
+
+        int get(int group, int k) {
+            return ids[start[group] + k];
+        }
+    }
+
+    // ===============================
+    // Loading
+    // ===============================
+
+    /** Loads the list in the background right away (called from ArcadeApp.main). */
+    public static synchronized void start() {
+        if (started) return;
+        started = true;
+        Thread loader = new Thread(() -> {
+            String path = System.getProperty("arcade.wordList", "src/words.tsv");
+            try {
+                current = load(path);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Word list " + path + " not loaded, using built-in words: " + e.getMessage());
+            }
+        }, "word-loader");
+        loader.setDaemon(true);
+        loader.setPriority(Thread.NORM_PRIORITY - 1);
+        loader.start();
+    }
+
+    /** The loaded dictionary, or null while it is still loading (or failed). */
+    public static WordDictionary current() {
+        return current;
+    }
+
+    public static WordDictionary load(String path) throws IOException {
+        File file = new File(path);
+        if (file.isFile()) {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                if (channel.size() > Integer.MAX_VALUE) {
+                    throw new IOException("word list larger than 2 GB: " + path);
+                }
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                return new WordDictionary(mapped);
+            }
+        }
+        try (InputStream in = WordDictionary.class.getResourceAsStream("/" + file.getName())) {
+            if (in == null) throw new IOException("word list not found: " + path);
+            return new WordDictionary(ByteBuffer.wrap(in.readAllBytes()));
+        }
+    }
+
+    // ===============================
+    // Entries
+    // ===============================
+
+    public int size() {
+        return size;
+    }
+
+    public String word(int id) {
+        return words[id];
+    }
+
+    /** Decoded from the file on every call; only done when a word is played. */
+    public String hint(int id) {
+        byte[] bytes = new byte[hintLength[id]];
+        data.get(hintOffset[id], bytes);
+        return new String(bytes, StandardCharsets.UTF_8).trim();
+    }
+
+    public String category(int id) {
+        return categories[category[id]];
+    }
+
+    public int difficulty(int id) {
+        return difficulty[id];
+    }
+
+    /** Mistakes HangmanSolver needed for this word, or -1 if not rated. */
+    public int rating(int id) {
+        return rating[id];
+    }
+
+    /** Number of characters in the phrase. */
+    public int length(int id) {
+        return textStart[id + 1] - textStart[id];
+    }
+
+    public char charAt(int id, int position) {
+        return text[textStart[id] + position];
+    }
+
+    /**
+     * Stores a rating (solver mistakes) for every word and sets each word's
+     * difficulty from it; pick() by difficulty uses the new values afterwards.
+     */
+    public synchronized void applyRatings(byte[] mistakes, int maxMistakes) {
+        if (mistakes.length != size) throw new IllegalArgumentException("expected " + size + " ratings");
+        for (int id = 0; id < size; id++) {
+            rating[id] = mistakes[id];
+            if (mistakes[id] >= 0) difficulty[id] = (byte) difficultyFor(mistakes[id], maxMistakes);
+        }
+        indexDifficulty();
+    }
+
+    /**
+     * Difficulty for a solver rating: a clean solve is 1, needing as many
+     * mistakes as a round allows (a loss even for the solver) is MAX_DIFFICULTY.
+     */
+    public static int difficultyFor(int mistakes, int maxMistakes) {
+        if (mistakes >= maxMistakes) return MAX_DIFFICULTY;
+        return 1 + mistakes * (MAX_DIFFICULTY - 1) / maxMistakes;
+    }
+
+    /** Letters of the word as a 26-bit mask (bit 0 = 'A'). */
+    public int mask(int id) {
+        return masks[id];
+    }
+
+    public String[] categories() {
+        return categories.clone();
+    }
+
+    public int categoryId(String name) {
+        String key = name.toUpperCase(Locale.ROOT);
+        for (int c = 0; c < categories.length; c++) {
+            if (categories[c].equals(key)) return c;
+        }
+        return -1;
+    }
+
+    // ===============================
+    // Picking and filtering
+    // ===============================
+
+    /**
+     * A random entry id in a category and/or difficulty (null / 0 for any),
+     * or -1 if none match.
+     */
+    public int pick(SplittableRandom random, String categoryName, int wantedDifficulty) {
+        int c = categoryName == null ? -1 : categoryId(categoryName);
+        if (categoryName != null && c < 0) return -1;
+
+        Index index;
+        int group;
+        if (c >= 0 && wantedDifficulty > 0) {
+            index = byCategoryDifficulty;
+            group = c * (MAX_DIFFICULTY + 1) + Math.min(wantedDifficulty, MAX_DIFFICULTY);
+        } else if (c >= 0) {
+            index = byCategory;
+            group = c;
+        } else if (wantedDifficulty > 0) {
+            index = byDifficulty;
+            group = Math.min(wantedDifficulty, MAX_DIFFICULTY);
+        } else {
+            return size == 0 ? -1 : random.nextInt(size);
+        }
+        int count = index.count(group);
+        return count == 0 ? -1 : index.get(group, random.nextInt(count));
+    }
+
+    /** Number of entries whose phrase has this many characters. */
+    public int countOfLength(int length) {
+        return byLength.count(length);
+    }
+
+    /** Ids are sorted by length: this length's ids start here (see countOfLength). */
+    public int firstOfLength(int length) {
+        return byLength.count(length) == 0 ? 0 : byLength.start[length];
+    }
+
+    /** Longest phrase in characters. */
+    public int maxLength() {
+        return byLength.start.length - 2;
+    }
+
+    /**
+     * Ids of every entry consistent with a round so far: same length, every
+     * revealed position equal, no missed letter, and no already-guessed
+     * letter hiding under a '_'.
+     */
+    public int[] candidates(HangmanState state) {
+        int[] out = new int[byLength.count(state.getPhrase().length())];
+        return Arrays.copyOf(out, candidates(state, out));
+    }
+
+    /** Like candidates(state) but into a caller's array; returns the count. */
+    public int candidates(HangmanState state, int[] out) {
+        char[] phrase = state.getPhrase().toCharArray();
+        int length = phrase.length;
+        int guessed = state.getGuessedMask();
+        int miss = state.getMissMask();
+        int hit = guessed & ~miss;
+        int from = firstOfLength(length);
+        int to = from + byLength.count(length);
+
+        int found = 0;
+        for (int id = from; id < to; id++) {
+            int m = masks[id];
+            // letter sets first: one and-not each, most words stop here
+            if ((m & miss) != 0 || (m & hit) != hit) continue;
+            if (matchesPositions(text, textStart[id], phrase, guessed)) out[found++] = id;
+        }
+        return found;
+    }
+
+    public boolean matches(int id, HangmanState state) {
+        String phrase = state.getPhrase();
+        int m = masks[id];
+        int guessed = state.getGuessedMask();
+        int miss = state.getMissMask();
+        return words[id].length() == phrase.length()
+                && (m & miss) == 0 && (m & (guessed & ~miss)) == (guessed & ~miss)
+                && matchesPositions(text, textStart[id], phrase.toCharArray(), guessed);
+    }
+
+    private static boolean matchesPositions(char[] text, int offset, char[] phrase, int guessed) {
+        for (int i = 0; i < phrase.length; i++) {
+            char p = phrase[i], c = text[offset + i];
+            int l = HangmanState.letterIndex(p);
+            if (l < 0 || (guessed & (1 << l)) != 0) {
+                if (c != p) return false;             // shown: must be the same
+            } else {
+                int wl = HangmanState.letterIndex(c);
+                if (wl < 0 || (guessed & (1 << wl)) != 0) return false; // hidden: an unguessed letter
+            }
+        }
+        return true;
+    }
+}